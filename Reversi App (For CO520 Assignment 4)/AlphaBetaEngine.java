@@ -0,0 +1,868 @@
+/**
+ * A computer player that chooses its moves by searching the turns that
+ * could follow the current position (negamax with alpha-beta pruning).
+ * The search is deepened one turn at a time (iterative deepening) until
+ * the time allowed for a move runs out, and the move found by the
+ * deepest search that was completed is played. The results of searching
+ * each position are kept in a transposition table, so that positions
+ * reached through different orders of moves are only searched once, and
+ * the best move found at the previous depth is searched first.
+ *
+ * The search can be spread over several threads ("Lazy SMP"): every
+ * thread searches the same position on its own copy of it, half of them
+ * one turn deeper than the others, and they share what they find through
+ * the transposition table, so that each finds more of its answers there.
+ *
+ * At the start of a game, a move found in the opening book (if one is
+ * given) is played without searching.
+ *
+ * Positions are estimated from the number of moves, corners and discs of
+ * each player, or (if one is given for the board size) by an Evaluator,
+ * a copy of which each thread keeps up to date on its position.
+ *
+ * Near the end of a game on a board of up to 8 x 8 tiles, the position is
+ * first handed to an EndgameSolver, which plays the rest of the game
+ * perfectly if it can solve the position in half of the time allowed.
+ *
+ * After every search, the depth reached and the number of positions
+ * searched (per second) can be read, to weigh the strength of the
+ * computer player against the time it takes to move. While it searches,
+ * a Listener can be told of every deeper search completed, and the
+ * search can be stopped from another thread.
+ *
+ * While the opponent chooses their move, the computer player can ponder
+ * the position they are to move on (search it until it is stopped), which
+ * fills the transposition table with the results of every answer they
+ * could play. When the position after the opponent's move is then searched,
+ * the results of the deepest searches are found in the table at once, and
+ * the search is allowed less time (by up to half) for the time pondered.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class AlphaBetaEngine implements Engine
+{
+    // The score of a game won by the player to move (to which the disc
+    // difference is added), larger than any estimated score
+    public static final int WIN_SCORE = 1000000;
+
+    // The number of entries in the transposition table, by default
+    // (a power of two - 16 MB)
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    // The number of empty tiles from which the end of a game is solved, by default
+    public static final int DEFAULT_ENDGAME_EMPTIES = 16;
+
+    // A score larger than any other
+    private static final int INFINITY = 2 * WIN_SCORE;
+
+    // The deepest search that can be made (in turns)
+    private static final int MAX_DEPTH = 64;
+
+    // The number of positions searched between two looks at the clock
+    // (a power of two)
+    private static final int CLOCK_INTERVAL = 1024;
+
+    // The weights of the features a position is estimated by: the number
+    // of moves and of corners each player has, and the number of discs
+    private static final int MOBILITY_WEIGHT = 8;
+    private static final int CORNER_WEIGHT = 25;
+    private static final int DISC_WEIGHT = 1;
+
+    // The time allowed for a move, in nanoseconds
+    private final long timeBudget;
+
+    // The deepest search allowed (in turns)
+    private int maxDepth;
+
+    // The number of threads that search
+    private int threads;
+
+    // The moves to play at the start of a game (or null, for none)
+    private OpeningBook book;
+
+    // What positions are estimated by, on boards of its size
+    // (or null, to estimate them by their features above)
+    private Evaluator evaluator;
+
+    // The number of empty tiles from which the end of a game is solved, the
+    // number of entries in the solver's transposition table, and the solver
+    // (created for the size of the last board solved, on the searching thread,
+    // and read by stop() from another one)
+    private int endgameEmpties;
+    private int endgameTableEntries;
+    private volatile EndgameSolver solver;
+
+    // The results of the positions searched, shared by all threads
+    private final TranspositionTable table;
+
+    // When the search started, after when it must not be deepened again,
+    // when it must stop, and whether it has (set by any thread, and read by all of them)
+    private long start;
+    private long lastDeepening;
+    private long deadline;
+    private volatile boolean stopped;
+
+    // What is told of every deeper search of the root position completed (or null)
+    private Listener listener;
+
+    // A copy of the last position pondered (or null, once a search has
+    // followed it), and the time spent pondering it (in nanoseconds)
+    private Position ponderedPosition;
+    private long ponderedTime;
+
+    // The result of the last search: the move chosen, its score, the depth
+    // reached, whether the move was found in the opening book, whether the
+    // position was solved, the number of positions searched, and the time
+    // taken (in nanoseconds)
+    private int bestMove;
+    private int score;
+    private int depth;
+    private boolean fromBook;
+    private boolean solved;
+    private long nodes;
+    private long time;
+
+    /**
+     * Create a computer player that takes (about) a number of milliseconds to move.
+     */
+    public AlphaBetaEngine(long timeBudget)
+    {
+        this(timeBudget, DEFAULT_TABLE_ENTRIES);
+    }
+
+    /**
+     * Create a computer player that takes (about) a number of milliseconds to move,
+     * with a transposition table of a number of entries (a power of two).
+     */
+    public AlphaBetaEngine(long timeBudget, int tableEntries)
+    {
+        if (timeBudget <= 0) {
+            throw new IllegalArgumentException("The time allowed for a move must be positive.");
+        }
+
+        this.timeBudget = timeBudget * 1000000L;
+        maxDepth = MAX_DEPTH;
+        threads = 1;
+        endgameEmpties = DEFAULT_ENDGAME_EMPTIES;
+        endgameTableEntries = EndgameSolver.DEFAULT_TABLE_ENTRIES;
+        table = new TranspositionTable(tableEntries);
+        bestMove = Position.PASS;
+    }
+
+    /**
+     * Set the deepest search allowed (in turns), so that searches can be
+     * compared at equal depth.
+     */
+    public void setMaxDepth(int maxDepth)
+    {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("The depth must be between 1 and " + MAX_DEPTH + ".");
+        }
+
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Set the number of threads that search.
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread must search.");
+        }
+
+        this.threads = threads;
+    }
+
+    /**
+     * Get the number of threads that search.
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * Set the opening book the moves at the start of a game are looked up
+     * in (or null, to search every move).
+     */
+    public void setOpeningBook(OpeningBook book)
+    {
+        this.book = book;
+    }
+
+    /**
+     * Set what positions are estimated by, on boards of its size (or null,
+     * to estimate them from their moves, corners and discs).
+     */
+    public void setEvaluator(Evaluator evaluator)
+    {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Set what is told of every deeper search of the root position
+     * completed (or null, for nothing).
+     */
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Set the number of empty tiles from which the end of a game is
+     * solved exactly (0 to never solve it).
+     */
+    public void setEndgameEmpties(int endgameEmpties)
+    {
+        if (endgameEmpties < 0) {
+            throw new IllegalArgumentException("The number of empty tiles cannot be negative.");
+        }
+
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /**
+     * Set the number of entries in the transposition table of the endgame
+     * solver (a power of two), for when many players search at once.
+     */
+    public void setEndgameTableEntries(int endgameTableEntries)
+    {
+        if (endgameTableEntries <= 0 || (endgameTableEntries & (endgameTableEntries - 1)) != 0) {
+            throw new IllegalArgumentException("The number of entries (" + endgameTableEntries + ") must be a power of two.");
+        }
+
+        this.endgameTableEntries = endgameTableEntries;
+        solver = null;
+    }
+
+    /**
+     * Forget the results of every earlier search.
+     */
+    public void clear()
+    {
+        table.clear();
+        EndgameSolver endgameSolver = solver;
+        if (endgameSolver != null) {
+            endgameSolver.clear();
+        }
+    }
+
+    /**
+     * Stop the search being made (from another thread). The search then
+     * returns the move found by the deepest search it completed. A search
+     * made on a thread that has been interrupted stops in the same way,
+     * even if it had not started yet when it was stopped.
+     */
+    public void stop()
+    {
+        stopped = true;
+        EndgameSolver endgameSolver = solver;
+        if (endgameSolver != null) {
+            endgameSolver.stop();
+        }
+    }
+
+    /**
+     * Choose the move to play for the player to move on a position.
+     * The position is left as it was.
+     *
+     * @return The square to play on, or PASS if the player cannot move.
+     */
+    public int search(Position position)
+    {
+        start = System.nanoTime();
+        long pondered = getPonderedTime(position);
+        deadline = start + timeBudget - pondered;
+        stopped = Thread.currentThread().isInterrupted();
+        nodes = 0;
+        depth = 0;
+        score = 0;
+        fromBook = false;
+        solved = false;
+
+        // The deep results of pondering the position before must not
+        // be replaced by shallower ones, as if they were old
+        if (pondered == 0) {
+            table.newSearch();
+        }
+
+        int[] rootMoves = new int[position.getSize() * position.getSize()];
+        int count = position.getLegalMoves(rootMoves);
+        bestMove = (count == 0) ? Position.PASS : rootMoves[0];
+
+        // With one move (or none) there is nothing to choose
+        if (count > 1 && ! playFromBook(position) && ! solve(position)) {
+            // A deeper search started after half of the time left
+            // would most likely not finish in time
+            long now = System.nanoTime();
+            lastDeepening = now + (deadline - now) / 2;
+            searchRoot(position, rootMoves, count);
+        }
+
+        time = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    /**
+     * Search a position (on which the opponent is to move) until the search
+     * is stopped, or every line has been searched to the end of the game,
+     * keeping the results in the transposition table for the search of the
+     * position after the opponent's move. The position is left as it was.
+     */
+    public void ponder(Position position)
+    {
+        start = System.nanoTime();
+        deadline = Long.MAX_VALUE;
+        lastDeepening = Long.MAX_VALUE;
+        stopped = Thread.currentThread().isInterrupted();
+        nodes = 0;
+        depth = 0;
+        score = 0;
+        fromBook = false;
+        solved = false;
+        table.newSearch();
+
+        int[] rootMoves = new int[position.getSize() * position.getSize()];
+        int count = position.getLegalMoves(rootMoves);
+        bestMove = (count == 0) ? Position.PASS : rootMoves[0];
+        if (count > 0) {
+            searchRoot(position, rootMoves, count);
+        }
+
+        time = System.nanoTime() - start;
+        ponderedPosition = position.copy();
+        ponderedTime = time;
+    }
+
+    /**
+     * Get the time (in nanoseconds) by which the search of a position can be
+     * shortened because the position before it was pondered: the time spent
+     * pondering, up to half of the time allowed for a move, or 0 if the last
+     * position pondered is not the one before it.
+     */
+    private long getPonderedTime(Position position)
+    {
+        Position pondered = ponderedPosition;
+        ponderedPosition = null;
+        if (pondered == null || pondered.getSize() != position.getSize()) {
+            return 0;
+        }
+
+        // The position must follow from one of the answers (or a pass) of the opponent
+        int[] answers = new int[pondered.getSize() * pondered.getSize()];
+        int count = pondered.getLegalMoves(answers);
+        if (count == 0) {
+            answers[count++] = Position.PASS;
+        }
+        for (int i = 0; i < count; i++) {
+            if (answers[i] == Position.PASS) {
+                pondered.pass();
+            }
+            else {
+                pondered.play(answers[i]);
+            }
+            boolean follows = pondered.getHash() == position.getHash();
+            pondered.undo();
+            if (follows) {
+                return Math.min(ponderedTime, timeBudget / 2);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Search the moves of the root position on every thread, until the
+     * main worker decides the search is over (see Worker.run).
+     */
+    private void searchRoot(Position position, int[] rootMoves, int count)
+    {
+        // The helpers get their own copies of the position before
+        // the main worker starts playing moves on it
+        Worker[] helpers = new Worker[threads - 1];
+        Thread[] helperThreads = new Thread[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Worker(position.copy(), rootMoves.clone(), count, 1 + (i + 1) % 2, false);
+            helperThreads[i] = new Thread(helpers[i], "Search helper " + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+
+        Worker main = new Worker(position, rootMoves, count, 1, true);
+        main.run();
+        stopped = true;
+        nodes += main.nodes;
+
+        Engine.joinHelpers(helperThreads);
+        for (Worker helper : helpers) {
+            nodes += helper.nodes;
+        }
+    }
+
+    /**
+     * Look the position up in the opening book, and keep the move found
+     * there (if it is legal) as the result of the search.
+     *
+     * @return Whether a move was found.
+     */
+    private boolean playFromBook(Position position)
+    {
+        if (book == null) {
+            return false;
+        }
+
+        int move = book.lookup(position);
+        if (move == Position.PASS || ! position.isLegal(move)) {
+            return false;
+        }
+
+        bestMove = move;
+        fromBook = true;
+        return true;
+    }
+
+    /**
+     * Solve the position with the endgame solver, if few enough of its tiles
+     * are empty, and keep the result as that of the search.
+     *
+     * @return Whether the position was solved (in half of the time left
+     *         before the deadline, which is shorter after pondering).
+     */
+    private boolean solve(Position position)
+    {
+        int size = position.getSize();
+        int empties = size * size - position.countDiscs(Position.BLACK) - position.countDiscs(Position.WHITE);
+        if (empties > endgameEmpties || ! (position instanceof BitboardPosition) || stopped) {
+            return false;
+        }
+
+        if (solver == null || solver.getSize() != size) {
+            solver = new EndgameSolver(size, endgameTableEntries);
+        }
+        solver.setThreads(threads);
+        boolean finished = solver.solve((BitboardPosition) position, Math.max(1, (deadline - System.nanoTime()) / 2000000L));
+        nodes += solver.getNodes();
+        if (! finished) {
+            return false;
+        }
+
+        int discDifference = solver.getScore();
+        bestMove = solver.getBestMove();
+        depth = empties;
+        solved = true;
+        if (discDifference > 0) {
+            score = WIN_SCORE + discDifference;
+        }
+        else if (discDifference < 0) {
+            score = -WIN_SCORE + discDifference;
+        }
+        return true;
+    }
+
+    /**
+     * Keep the result of a completed search of the root position (by a
+     * worker), unless a thread has completed a deeper one, and tell the
+     * listener of it.
+     */
+    private synchronized void report(int searchDepth, int move, int moveScore, Worker worker)
+    {
+        if (searchDepth > depth) {
+            depth = searchDepth;
+            bestMove = move;
+            score = moveScore;
+
+            if (listener != null) {
+                int[] line = new int[searchDepth];
+                listener.searchDeepened(searchDepth, moveScore, line, worker.getLine(move, line));
+            }
+        }
+    }
+
+    /**
+     * Get the move chosen by the last search (or PASS).
+     */
+    public int getBestMove()
+    {
+        return bestMove;
+    }
+
+    /**
+     * Get the score of the move chosen by the last search, for the player
+     * who was to move. Scores of WIN_SCORE or more (or -WIN_SCORE or less)
+     * are games won (or lost) whatever the opponent plays.
+     */
+    public int getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Get the number of turns the last search looked ahead
+     * (0 if there was only one move, or none, to choose from).
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Check if the move chosen by the last search was found in the opening book.
+     */
+    public boolean isFromBook()
+    {
+        return fromBook;
+    }
+
+    /**
+     * Check if the last search solved the position, so that the move chosen
+     * leads to the best final disc difference whatever the opponent plays.
+     */
+    public boolean isSolved()
+    {
+        return solved;
+    }
+
+    /**
+     * Get the number of positions searched by the last search (by all threads).
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Get the time taken by the last search, in milliseconds.
+     */
+    public long getTime()
+    {
+        return time / 1000000L;
+    }
+
+    /**
+     * Get the number of positions searched per second by the last search.
+     */
+    public long getNodesPerSecond()
+    {
+        return (time == 0) ? 0 : nodes * 1000000000L / time;
+    }
+
+    // ---- Inner class ----
+
+    /**
+     * One of the threads of a search, which deepens its own search of its
+     * own copy of the root position. The main worker decides when the
+     * search is over; the others (helpers) search until they are stopped.
+     */
+    private class Worker implements Runnable
+    {
+        // The position searched, its corner squares, and the copy of the
+        // engine's evaluator that estimates it (or null)
+        private final Position position;
+        private final int[] corners;
+        private final Evaluator evaluator;
+
+        // The moves of the root position (best first), and their number
+        private final int[] rootMoves;
+        private final int rootCount;
+
+        // The depth of the first search, and whether this is the main worker
+        private final int firstDepth;
+        private final boolean main;
+
+        // For every depth still to search, the squares that can be played on
+        private final int[][] moves;
+
+        // The number of positions searched, and whether the search
+        // at the current depth has estimated any position
+        private long nodes;
+        private boolean estimated;
+
+        /**
+         * Create a worker that searches a position, starting at a depth.
+         */
+        public Worker(Position position, int[] rootMoves, int rootCount, int firstDepth, boolean main)
+        {
+            this.position = position;
+            int size = position.getSize();
+            corners = new int[] {0, size - 1, size * (size - 1), size * size - 1};
+            this.rootMoves = rootMoves;
+            this.rootCount = rootCount;
+            this.firstDepth = firstDepth;
+            this.main = main;
+            moves = new int[MAX_DEPTH + 1][];
+
+            Evaluator engineEvaluator = AlphaBetaEngine.this.evaluator;
+            if (engineEvaluator != null && position instanceof BitboardPosition && size == engineEvaluator.getSize()) {
+                evaluator = engineEvaluator.copy();
+            }
+            else {
+                evaluator = null;
+            }
+        }
+
+        /**
+         * Deepen the search until it is stopped, or (for the main worker) until
+         * every line has been searched to the end of the game, or a deeper
+         * search would most likely not finish in time.
+         */
+        @Override
+        public void run()
+        {
+            if (evaluator == null) {
+                deepen();
+                return;
+            }
+
+            // The evaluator stops listening to the position once the search
+            // is over, as the main worker's position is the caller's
+            evaluator.attach((BitboardPosition) position);
+            try {
+                deepen();
+            }
+            finally {
+                evaluator.detach();
+            }
+        }
+
+        /**
+         * Deepen the search (see run).
+         */
+        private void deepen()
+        {
+            for (int depthToSearch = firstDepth; depthToSearch <= maxDepth && ! stopped; depthToSearch++) {
+                estimated = false;
+                int alpha = -INFINITY;
+                int best = 0;
+                for (int i = 0; i < rootCount; i++) {
+                    position.play(rootMoves[i]);
+                    int moveScore = -negamax(depthToSearch - 1, -INFINITY, -alpha);
+                    position.undo();
+                    if (stopped) {
+                        return;
+                    }
+                    if (moveScore > alpha) {
+                        alpha = moveScore;
+                        best = i;
+                    }
+                }
+
+                // Search the best move first at the next depth
+                int move = rootMoves[best];
+                System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+                rootMoves[0] = move;
+                report(depthToSearch, move, alpha, this);
+
+                if (main && (! estimated || System.nanoTime() > lastDeepening)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Put the moves expected to be played from the root position, starting
+         * with one of its moves, in an array: the best moves found for the
+         * positions that follow it (in the transposition table), for as long
+         * as they are there, are legal and fit in the array.
+         *
+         * @return The number of moves put in the array.
+         */
+        private int getLine(int move, int[] line)
+        {
+            int length = 0;
+            while (length < line.length && move != Position.PASS && position.isLegal(move)) {
+                line[length++] = move;
+                position.play(move);
+
+                long stored = table.probe(position.getHash());
+                move = (stored == 0) ? Position.PASS : TranspositionTable.getMove(stored);
+            }
+
+            for (int i = 0; i < length; i++) {
+                position.undo();
+            }
+            return length;
+        }
+
+        /**
+         * Compute the score of the current position for the player to move,
+         * searching a number of turns ahead: the best of the scores the player
+         * can get by moving, where the opponent answers each move with the best
+         * of theirs. Scores outside of the (alpha, beta) window only need to be
+         * bounded, which lets most lines be cut short.
+         *
+         * A position whose score (or a bound of it that is outside of the window)
+         * is in the transposition table from a search at least as deep is not
+         * searched again, and the best move found for it before is searched first.
+         */
+        private int negamax(int depthToSearch, int alpha, int beta)
+        {
+            nodes++;
+            if ((nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+                stopped = true;
+            }
+            if (stopped) {
+                return 0;
+            }
+
+            if (depthToSearch == 0) {
+                return evaluate();
+            }
+
+            long hash = position.getHash();
+            long stored = table.probe(hash);
+            int storedMove = Position.PASS;
+            if (stored != 0) {
+                storedMove = TranspositionTable.getMove(stored);
+                if (TranspositionTable.getDepth(stored) >= depthToSearch) {
+                    int storedScore = TranspositionTable.getScore(stored);
+                    int bound = TranspositionTable.getBound(stored);
+                    if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && storedScore >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && storedScore <= alpha)) {
+                        // Only won and lost games are known not to have been estimated
+                        if (Math.abs(storedScore) < WIN_SCORE) {
+                            estimated = true;
+                        }
+                        return storedScore;
+                    }
+                }
+            }
+
+            if (moves[depthToSearch] == null) {
+                moves[depthToSearch] = new int[position.getSize() * position.getSize()];
+            }
+            int[] squares = moves[depthToSearch];
+            int count = position.getLegalMoves(squares);
+
+            if (count == 0) {
+                if (! position.canMove(1 - position.getSideToMove())) {
+                    return finalScore();
+                }
+
+                position.pass();
+                int passScore = -negamax(depthToSearch - 1, -beta, -alpha);
+                position.undo();
+                return passScore;
+            }
+
+            // Search the best move found before first
+            // (It may have been stored by another thread for another position
+            // that shares the entry's hash, so it must be checked to be legal.)
+            if (storedMove != Position.PASS) {
+                for (int i = 1; i < count; i++) {
+                    if (squares[i] == storedMove) {
+                        squares[i] = squares[0];
+                        squares[0] = storedMove;
+                        break;
+                    }
+                }
+            }
+
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+            int bestSquare = Position.PASS;
+            for (int i = 0; i < count; i++) {
+                position.play(squares[i]);
+                int moveScore = -negamax(depthToSearch - 1, -beta, -alpha);
+                position.undo();
+
+                if (moveScore > best) {
+                    best = moveScore;
+                    bestSquare = squares[i];
+                    if (best > alpha) {
+                        alpha = best;
+                        if (alpha >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (! stopped) {
+                int bound = TranspositionTable.EXACT;
+                if (best <= originalAlpha) {
+                    bound = TranspositionTable.UPPER_BOUND;
+                }
+                else if (best >= beta) {
+                    bound = TranspositionTable.LOWER_BOUND;
+                }
+                table.store(hash, depthToSearch, best, bound, bestSquare);
+            }
+
+            return best;
+        }
+
+        /**
+         * Estimate the score of the current position for the player to move,
+         * with the evaluator, or from the number of moves, corners and discs
+         * each player has.
+         */
+        private int evaluate()
+        {
+            int player = position.getSideToMove();
+            int opponent = 1 - player;
+
+            int playerMoves = position.countLegalMoves(player);
+            int opponentMoves = position.countLegalMoves(opponent);
+            if (playerMoves == 0 && opponentMoves == 0) {
+                return finalScore();
+            }
+            estimated = true;
+            if (evaluator != null) {
+                return evaluator.evaluate();
+            }
+
+            int cornerDifference = 0;
+            for (int corner : corners) {
+                int disc = position.getDisc(corner);
+                if (disc == player) {
+                    cornerDifference++;
+                }
+                else if (disc == opponent) {
+                    cornerDifference--;
+                }
+            }
+
+            return MOBILITY_WEIGHT * (playerMoves - opponentMoves)
+                   + CORNER_WEIGHT * cornerDifference
+                   + DISC_WEIGHT * (position.countDiscs(player) - position.countDiscs(opponent));
+        }
+
+        /**
+         * Get the score of the current position, once the game is over,
+         * for the player to move.
+         */
+        private int finalScore()
+        {
+            int player = position.getSideToMove();
+            int discDifference = position.countDiscs(player) - position.countDiscs(1 - player);
+            if (discDifference > 0) {
+                return WIN_SCORE + discDifference;
+            }
+            else if (discDifference < 0) {
+                return -WIN_SCORE + discDifference;
+            }
+
+            return 0;
+        }
+    }
+
+    // ---- Inner interface ----
+
+    /**
+     * Something that is told, on the thread that completed it, of every
+     * deeper search of the root position, such as a window showing how the
+     * computer player's search is going.
+     */
+    public interface Listener
+    {
+        /**
+         * The root position has been searched a number of turns ahead: the best
+         * move scored a number of points (see getScore), and the first moves of
+         * an array (the best one first) are expected to follow.
+         */
+        void searchDeepened(int depth, int score, int[] line, int length);
+    }
+}
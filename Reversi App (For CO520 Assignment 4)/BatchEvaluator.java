@@ -0,0 +1,166 @@
+/**
+ * Estimates many 8 x 8 positions at once with the pattern weights of a
+ * PatternWeights (as a PatternEvaluator would estimate each of them),
+ * for analysing or training on millions of positions. Each position is
+ * packed as the bitboards of its black and white discs and the colour
+ * of the player to move, the scores being for that player.
+ *
+ * This class estimates the positions one after the other. When the Java
+ * platform has the (incubating) Vector API, create returns an evaluator
+ * that estimates several positions at once, one in each lane of the
+ * processor's vector registers (see VectorBatchEvaluator). The module
+ * must be added to the Java virtual machine for that, with
+ * "--add-modules jdk.incubator.vector".
+ *
+ * An evaluator keeps the indices of the position it is estimating, so it
+ * must only be used by one thread at a time.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class BatchEvaluator
+{
+    // The module of the Vector API, and the evaluator that uses it
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_EVALUATOR = "VectorBatchEvaluator";
+
+    // The number of tiles of the board
+    protected static final int SQUARES = PatternWeights.SIZE * PatternWeights.SIZE;
+
+    // The weight tables of every stage, one after the other (as ints,
+    // which can be loaded many at a time), and for every number of discs,
+    // where the tables of its stage start, and its mobility and parity weights
+    protected final int[] tables;
+    protected final int[] stageOffsets;
+    protected final int[] mobilityWeights;
+    protected final int[] parityWeights;
+
+    // The index of every place a pattern is looked at in the position
+    // being estimated
+    private final int[] indices;
+
+    /**
+     * Create an evaluator that estimates positions one after the other.
+     */
+    public BatchEvaluator(PatternWeights weights)
+    {
+        int stageLength = PatternWeights.TABLE_OFFSETS[PatternWeights.PATTERNS.length];
+        tables = new int[weights.getStages() * stageLength];
+        for (int stage = 0; stage < weights.getStages(); stage++) {
+            short[] stageTables = weights.getTables(stage);
+            for (int i = 0; i < stageLength; i++) {
+                tables[stage * stageLength + i] = stageTables[i];
+            }
+        }
+
+        stageOffsets = new int[SQUARES + 1];
+        mobilityWeights = new int[SQUARES + 1];
+        parityWeights = new int[SQUARES + 1];
+        for (int discs = 0; discs <= SQUARES; discs++) {
+            int stage = weights.getStage(discs);
+            stageOffsets[discs] = stage * stageLength;
+            mobilityWeights[discs] = weights.getMobilityWeight(stage);
+            parityWeights[discs] = weights.getParityWeight(stage);
+        }
+
+        indices = new int[PatternWeights.PLACE_PATTERNS.length];
+    }
+
+    /**
+     * Create the fastest evaluator the Java platform allows: one that uses
+     * the Vector API if its module has been added, else one that estimates
+     * positions one after the other.
+     */
+    public static BatchEvaluator create(PatternWeights weights)
+    {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (BatchEvaluator) Class.forName(VECTOR_EVALUATOR)
+                                             .getConstructor(PatternWeights.class)
+                                             .newInstance(weights);
+            }
+            catch (ReflectiveOperationException | LinkageError e) {
+                // The positions are estimated one after the other below
+            }
+        }
+
+        return new BatchEvaluator(weights);
+    }
+
+    /**
+     * Check if the evaluator estimates several positions at once.
+     */
+    public boolean isVectorized()
+    {
+        return false;
+    }
+
+    /**
+     * Estimate a number of positions, from the start of the arrays.
+     *
+     * @param black The bitboard of the black discs of each position.
+     * @param white The bitboard of the white discs of each position.
+     * @param sidesToMove The colour of the player to move in each position.
+     * @param scores Where the score of each position (for the player to move) is put.
+     */
+    public void evaluate(long[] black, long[] white, int[] sidesToMove, int[] scores, int count)
+    {
+        evaluateEach(black, white, sidesToMove, scores, 0, count);
+    }
+
+    /**
+     * Estimate the positions from one index of the arrays up to (but not
+     * including) another, one after the other.
+     */
+    protected final void evaluateEach(long[] black, long[] white, int[] sidesToMove, int[] scores, int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            scores[i] = evaluate(black[i], white[i], sidesToMove[i]);
+        }
+    }
+
+    /**
+     * Estimate one position, for the player to move.
+     */
+    public int evaluate(long black, long white, int sideToMove)
+    {
+        int discs = Long.bitCount(black | white);
+        int stageOffset = stageOffsets[discs];
+        for (int place = 0; place < indices.length; place++) {
+            indices[place] = stageOffset + PatternWeights.TABLE_OFFSETS[PatternWeights.PLACE_PATTERNS[place]];
+        }
+
+        // Only the tiles with discs on them add to the indices
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            addDigit(Long.numberOfTrailingZeros(bits), PatternEvaluator.BLACK_DIGIT);
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            addDigit(Long.numberOfTrailingZeros(bits), PatternEvaluator.WHITE_DIGIT);
+        }
+
+        int score = 0;
+        for (int index : indices) {
+            score += tables[index];
+        }
+
+        score += mobilityWeights[discs] * (Long.bitCount(BitboardPosition.legalMoves(black, white, PatternWeights.SIZE))
+                                           - Long.bitCount(BitboardPosition.legalMoves(white, black, PatternWeights.SIZE)));
+
+        // With an odd number of empty tiles left, the player to move can expect to play last
+        int parity = ((SQUARES - discs) % 2 == 1) ? 1 : -1;
+        int sign = (sideToMove == Position.BLACK) ? 1 : -1;
+        return sign * score + parity * parityWeights[discs];
+    }
+
+    /**
+     * Add the digit of a disc on a tile to every place it is in.
+     */
+    private void addDigit(int square, int digit)
+    {
+        int[] places = PatternEvaluator.SQUARE_PLACES[square];
+        int[] powers = PatternEvaluator.SQUARE_POWERS[square];
+        for (int i = 0; i < places.length; i++) {
+            indices[places[i]] += digit * powers[i];
+        }
+    }
+}
@@ -0,0 +1,510 @@
+/**
+ * A GUI-free model of the discs on a Reversi board of up to 8 x 8 tiles.
+ * The tiles occupied by each colour are kept in a "bitboard" (a long in
+ * which bit (row * size + column) is set when the tile holds a disc of
+ * that colour), so that legal moves and captures are computed by shifting
+ * and masking whole boards at once instead of walking tile by tile.
+ * Larger boards are modelled by a WideBitboardPosition.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class BitboardPosition extends Position
+{
+    // The largest board (size x size) whose tiles fit in a bitboard
+    public static final int MAX_SIZE = 8;
+
+    // static fields - For every board size, the tiles that are on the board,
+    // the number of bits a bitboard is shifted by to move every disc one tile in
+    // each of the eight directions (N, NE, E, SE, S, SW, W, NW), and the masks
+    // that stop discs from wrapping around the edges of the board when they move
+    private static final long[] BOARD_MASKS = new long[MAX_SIZE + 1];
+    private static final int[][] SHIFTS = new int[MAX_SIZE + 1][];
+    private static final long[][] MASKS = new long[MAX_SIZE + 1][];
+
+    static {
+        for (int size = 1; size <= MAX_SIZE; size++) {
+            long boardMask = (size == MAX_SIZE) ? -1L : (1L << (size * size)) - 1;
+            long firstColumn = 0;
+            long lastColumn = 0;
+            for (int row = 0; row < size; row++) {
+                firstColumn |= 1L << (row * size);
+                lastColumn |= 1L << (row * size + size - 1);
+            }
+
+            BOARD_MASKS[size] = boardMask;
+            SHIFTS[size] = new int[] {-size, -size + 1, 1, size + 1, size, size - 1, -1, -size - 1};
+            MASKS[size] = new long[] {boardMask,
+                                      boardMask & ~firstColumn,
+                                      boardMask & ~firstColumn,
+                                      boardMask & ~firstColumn,
+                                      boardMask,
+                                      boardMask & ~lastColumn,
+                                      boardMask & ~lastColumn,
+                                      boardMask & ~lastColumn};
+        }
+    }
+
+    // The tiles occupied by black discs and by white discs
+    private long black;
+    private long white;
+
+    // The discs flipped at each turn taken so far
+    private final long[] flippedHistory;
+
+    // The tiles each colour can legally play on, and whether they are outdated
+    // (They are only recomputed, once, after the discs on the board change.)
+    private long blackMoves;
+    private long whiteMoves;
+    private boolean blackMovesOutdated;
+    private boolean whiteMovesOutdated;
+
+    // What is told of every change to the discs (or null)
+    private Listener listener;
+
+    /**
+     * Create a position from the bitboards of both colours.
+     */
+    public BitboardPosition(int size, long black, long white, int sideToMove)
+    {
+        super(size, sideToMove);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("A " + size + " x " + size + " board does not fit in a bitboard.");
+        }
+
+        this.black = black;
+        this.white = white;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            hash ^= getDiscKey(BLACK, Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            hash ^= getDiscKey(WHITE, Long.numberOfTrailingZeros(bits));
+        }
+        flippedHistory = new long[moveHistory.length];
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+    }
+
+    /**
+     * Get the bitboard of the tiles occupied by black discs.
+     */
+    public long getBlack()
+    {
+        return black;
+    }
+
+    /**
+     * Get the bitboard of the tiles occupied by white discs.
+     */
+    public long getWhite()
+    {
+        return white;
+    }
+
+    /**
+     * Get the bitboard of the discs flipped at the last
+     * turn taken (none if it was passed).
+     */
+    public long getLastFlipped()
+    {
+        return (plies == 0) ? 0 : flippedHistory[plies - 1];
+    }
+
+    /**
+     * Set what is told of every change to the discs (or null, for nothing).
+     */
+    public void setListener(Listener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Get the bitboard of the tiles the player to move can legally play on.
+     */
+    public long getLegalMoves()
+    {
+        return getLegalMoves(sideToMove);
+    }
+
+    /**
+     * Get the bitboard of the tiles a colour can legally play on.
+     */
+    public long getLegalMoves(int colour)
+    {
+        if (colour == BLACK) {
+            if (blackMovesOutdated) {
+                blackMoves = legalMoves(black, white, size);
+                blackMovesOutdated = false;
+            }
+            return blackMoves;
+        }
+
+        if (whiteMovesOutdated) {
+            whiteMoves = legalMoves(white, black, size);
+            whiteMovesOutdated = false;
+        }
+        return whiteMoves;
+    }
+
+    // The following methods are implementations of the
+    // abstract methods inherited from the superclass.
+
+    @Override
+    public int getDisc(int square)
+    {
+        long tile = 1L << square;
+        if ((black & tile) != 0) {
+            return BLACK;
+        }
+        else if ((white & tile) != 0) {
+            return WHITE;
+        }
+
+        return EMPTY;
+    }
+
+    @Override
+    protected void placeDisc(int square, int colour)
+    {
+        long tile = 1L << square;
+        black &= ~tile;
+        white &= ~tile;
+        if (colour == BLACK) {
+            black |= tile;
+        }
+        else if (colour == WHITE) {
+            white |= tile;
+        }
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+        if (listener != null) {
+            listener.discsChanged();
+        }
+    }
+
+    @Override
+    public long getHash(int symmetry)
+    {
+        // Only the tiles with discs on them are visited
+        long symmetricHash = (sideToMove == WHITE) ? WHITE_TO_MOVE_KEY : 0;
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            symmetricHash ^= getDiscKey(BLACK, getSymmetricSquare(Long.numberOfTrailingZeros(bits), symmetry));
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            symmetricHash ^= getDiscKey(WHITE, getSymmetricSquare(Long.numberOfTrailingZeros(bits), symmetry));
+        }
+
+        return symmetricHash;
+    }
+
+    @Override
+    public int countDiscs(int colour)
+    {
+        return Long.bitCount(colour == BLACK ? black : white);
+    }
+
+    @Override
+    public boolean isLegal(int square)
+    {
+        return (getLegalMoves() & (1L << square)) != 0;
+    }
+
+    @Override
+    public boolean canMove(int colour)
+    {
+        return getLegalMoves(colour) != 0;
+    }
+
+    @Override
+    public int countLegalMoves(int colour)
+    {
+        return Long.bitCount(getLegalMoves(colour));
+    }
+
+    @Override
+    public int countStableDiscs(int colour)
+    {
+        return (colour == BLACK) ? Long.bitCount(stableDiscs(black, white, size))
+                                 : Long.bitCount(stableDiscs(white, black, size));
+    }
+
+    @Override
+    public int countFrontierDiscs(int colour)
+    {
+        return (colour == BLACK) ? Long.bitCount(frontierDiscs(black, white, size))
+                                 : Long.bitCount(frontierDiscs(white, black, size));
+    }
+
+    @Override
+    public int getLegalMoves(int[] squares)
+    {
+        return toSquares(getLegalMoves(), squares);
+    }
+
+    @Override
+    public int play(int square)
+    {
+        long tile = 1L << square;
+        if ((getLegalMoves() & tile) == 0) {
+            return 0;
+        }
+
+        long flipped;
+        if (sideToMove == BLACK) {
+            flipped = flips(black, white, square, size);
+            black |= flipped | tile;
+            white &= ~flipped;
+        }
+        else {
+            flipped = flips(white, black, square, size);
+            white |= flipped | tile;
+            black &= ~flipped;
+        }
+
+        flippedHistory[plies] = flipped;
+        recordTurn(square);
+
+        long newHash = hash ^ getDiscKey(sideToMove, square) ^ WHITE_TO_MOVE_KEY;
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            newHash ^= FLIP_KEYS[Long.numberOfTrailingZeros(bits)];
+        }
+        hash = newHash;
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+        if (listener != null) {
+            listener.turnTaken(square, flipped, sideToMove);
+        }
+        sideToMove = 1 - sideToMove;
+        return Long.bitCount(flipped);
+    }
+
+    @Override
+    public void pass()
+    {
+        flippedHistory[plies] = 0;
+        super.pass();
+    }
+
+    @Override
+    public int getFlipped(int[] squares)
+    {
+        return toSquares(getLastFlipped(), squares);
+    }
+
+    @Override
+    protected void undoMove(int square)
+    {
+        long flipped = flippedHistory[plies];
+        long tile = 1L << square;
+        if (sideToMove == BLACK) {
+            black &= ~(flipped | tile);
+            white |= flipped;
+        }
+        else {
+            white &= ~(flipped | tile);
+            black |= flipped;
+        }
+
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+        if (listener != null) {
+            listener.turnTakenBack(square, flipped, sideToMove);
+        }
+    }
+
+    // ---- Bitboard operations ----
+
+    /**
+     * Compute the bitboard of the empty tiles on which a player would
+     * capture at least one disc. For every direction, the player's discs
+     * are moved across the opponent's discs, and the empty tiles reached
+     * just after a run of them are legal moves. The runs are grown by 1,
+     * then 2, then 4 tiles at a time (a "Kogge-Stone" fill), which covers
+     * the longest run (of 6 discs) in three steps instead of six.
+     */
+    public static long legalMoves(long own, long opponent, int size)
+    {
+        int[] shifts = SHIFTS[size];
+        long[] masks = MASKS[size];
+        long empty = ~(own | opponent) & BOARD_MASKS[size];
+        long moves = 0;
+
+        for (int direction = 0; direction < 8; direction++) {
+            int shift = shifts[direction];
+            long mask = masks[direction];
+
+            // The opponent's discs that a run can grow across (those that a disc
+            // can move onto without wrapping around an edge), then the pairs of
+            // them a run can grow two tiles across at once
+            long across = opponent & mask;
+            long run = shift(own, shift, mask) & opponent;
+            run |= across & shift(run, shift, mask);
+            long acrossTwo = across & shift(across, shift, mask);
+            run |= acrossTwo & shift(run, 2 * shift, -1L);
+            long acrossFour = acrossTwo & shift(acrossTwo, 2 * shift, -1L);
+            run |= acrossFour & shift(run, 4 * shift, -1L);
+            moves |= shift(run, shift, mask) & empty;
+        }
+
+        return moves;
+    }
+
+    /**
+     * Compute the bitboard of the opponent's discs that a player would
+     * flip by playing on a tile: every run of them that starts next to the
+     * tile and is closed by one of the player's own discs.
+     */
+    public static long flips(long own, long opponent, int square, int size)
+    {
+        int[] shifts = SHIFTS[size];
+        long[] masks = MASKS[size];
+        long move = 1L << square;
+        long flipped = 0;
+
+        for (int direction = 0; direction < 8; direction++) {
+            int shift = shifts[direction];
+            long mask = masks[direction];
+
+            long line = 0;
+            long tile = shift(move, shift, mask);
+            while ((tile & opponent) != 0) {
+                line |= tile;
+                tile = shift(tile, shift, mask);
+            }
+            if ((tile & own) != 0) {
+                flipped |= line;
+            }
+        }
+
+        return flipped;
+    }
+
+    /**
+     * Compute the bitboard of a player's discs that can never be flipped
+     * (see Position.countStableDiscs). First, for each of the four lines
+     * through a tile, the tiles that line is full for are found by filling
+     * the full tiles in from both edges. Then the stable discs are grown from
+     * none: a disc is stable once, along every line, it is on a full line, at
+     * an edge, or next to a stable disc, until no more discs become stable.
+     */
+    public static long stableDiscs(long own, long opponent, int size)
+    {
+        int[] shifts = SHIFTS[size];
+        long[] masks = MASKS[size];
+        long filled = own | opponent;
+
+        // For each line (N-S, NE-SW, E-W and SE-NW), the tiles that cannot be
+        // flipped along it: those on a full line, and those at either end of it
+        long anchoredNorthSouth = anchoredTiles(filled, 0, size);
+        long anchoredNortheastSouthwest = anchoredTiles(filled, 1, size);
+        long anchoredEastWest = anchoredTiles(filled, 2, size);
+        long anchoredSoutheastNorthwest = anchoredTiles(filled, 3, size);
+
+        long stable = 0;
+        long previous;
+        do {
+            previous = stable;
+            stable = own
+                     & (anchoredNorthSouth | shift(previous, shifts[0], masks[0]) | shift(previous, shifts[4], masks[4]))
+                     & (anchoredNortheastSouthwest | shift(previous, shifts[1], masks[1]) | shift(previous, shifts[5], masks[5]))
+                     & (anchoredEastWest | shift(previous, shifts[2], masks[2]) | shift(previous, shifts[6], masks[6]))
+                     & (anchoredSoutheastNorthwest | shift(previous, shifts[3], masks[3]) | shift(previous, shifts[7], masks[7]));
+        } while (stable != previous);
+
+        return stable;
+    }
+
+    /**
+     * Compute the tiles that cannot be flipped along a line (0 to 3: N-S,
+     * NE-SW, E-W or SE-NW) of a size x size board with some tiles filled:
+     * those on a line that is full, and those at either end of a line.
+     */
+    private static long anchoredTiles(long filled, int line, int size)
+    {
+        int[] shifts = SHIFTS[size];
+        long[] masks = MASKS[size];
+        long board = BOARD_MASKS[size];
+        int forward = line;
+        int backward = line + 4;
+        long forwardEdge = board & ~shift(board, shifts[backward], masks[backward]);
+        long backwardEdge = board & ~shift(board, shifts[forward], masks[forward]);
+
+        long forwardFull = filled & forwardEdge;
+        long backwardFull = filled & backwardEdge;
+        for (int i = 1; i < size; i++) {
+            forwardFull |= filled & shift(forwardFull, shifts[backward], masks[backward]);
+            backwardFull |= filled & shift(backwardFull, shifts[forward], masks[forward]);
+        }
+
+        return (forwardFull & backwardFull) | forwardEdge | backwardEdge;
+    }
+
+    /**
+     * Compute the bitboard of a player's discs that are next to at least
+     * one empty tile: the player's discs reached by moving every empty tile
+     * one tile in each direction.
+     */
+    public static long frontierDiscs(long own, long opponent, int size)
+    {
+        int[] shifts = SHIFTS[size];
+        long[] masks = MASKS[size];
+        long empty = ~(own | opponent) & BOARD_MASKS[size];
+
+        long nextToEmpty = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            nextToEmpty |= shift(empty, shifts[direction], masks[direction]);
+        }
+
+        return own & nextToEmpty;
+    }
+
+    /**
+     * Fill an array with the squares of the tiles set in a bitboard.
+     *
+     * @return The number of squares written to the array.
+     */
+    public static int toSquares(long bits, int[] squares)
+    {
+        int count = 0;
+        while (bits != 0) {
+            squares[count++] = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Move every disc of a bitboard one tile in a direction,
+     * dropping the ones that would leave the board.
+     */
+    private static long shift(long bits, int shift, long mask)
+    {
+        return (shift > 0 ? bits << shift : bits >>> -shift) & mask;
+    }
+
+    // ---- Inner interface ----
+
+    /**
+     * Something that keeps track of the discs of a position as they
+     * change (such as a PatternEvaluator), rather than looking at the
+     * whole board again after every change.
+     */
+    public interface Listener
+    {
+        /**
+         * A player of a colour has played on a square, flipping a bitboard of discs.
+         */
+        void turnTaken(int square, long flipped, int colour);
+
+        /**
+         * The turn above has been taken back.
+         */
+        void turnTakenBack(int square, long flipped, int colour);
+
+        /**
+         * A disc has been placed or removed without a turn being taken.
+         */
+        void discsChanged();
+    }
+}
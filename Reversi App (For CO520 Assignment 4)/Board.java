@@ -6,89 +6,153 @@ import javax.swing.border.LineBorder;
 /**
  * Represents the board of the Reversi game.
  *
+ * The board is drawn by a single component, which paints every tile
+ * (and the disc on it) itself and finds the tile under the mouse from
+ * its coordinates, rather than being made of a button per tile.
+ *
+ * The tiles changed by a move (the tile played on, and every disc it
+ * flips) are collected, and painted again together, once: the smallest
+ * area that covers all of them is repainted when the changes are
+ * committed, by the game at the end of the move, or else once the event
+ * that made them has been handled.
+ *
+ * A disc that is flipped is shown turning over, in the frames drawn by
+ * the DiscRenderer, at FRAME_RATE frames per second, by a single timer
+ * that moves every disc being flipped on to its next frame and then
+ * commits the changes (so they are painted again together). Each frame
+ * is chosen from the time since its flip started, so frames are dropped,
+ * rather than flips slowed down, when the board is painted late. Only
+ * the tiles are animated: a disc is on its new side (for getDisc, and
+ * the game) from the moment it is placed.
+ *
  * @author Radiance O. Ngonnase
  * @version 2021.05.19
  */
 public class Board
 {
+    // static fields - The colour of a tile, when it is pressed, and when the mouse
+    // is over it, and of the borders of a tile and of the tile under the mouse
+    // (shared by every tile, so that painting them creates no objects)
+    private static final Color TILE_COLOUR = new Color(116, 161, 109);
+    private static final Color PRESSED_TILE_COLOUR = TILE_COLOUR.darker();
+    private static final Color ROLLOVER_TILE_COLOUR = TILE_COLOUR.brighter();
+    private static final Color TILE_BORDER_COLOUR = Color.WHITE;
+    private static final Color ROLLOVER_TILE_BORDER_COLOUR = Color.BLACK;
+
+    // static fields - The thickness of the border of a tile and of the tile
+    // under the mouse, of the frame around the board, and of the gaps between
+    // the tiles (in pixels)
+    private static final int TILE_BORDER = 1;
+    private static final int ROLLOVER_TILE_BORDER = 3;
+    private static final int FRAME = 12;
+    private static final int GAP = 1;
+
+    // static fields - The number of frames per second flips are shown at,
+    // and the time between two frames (in nanoseconds)
+    private static final int FRAME_RATE = 60;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAME_RATE;
+
     // The size of the board
     // (The board is a size x size grid)
     private int size;
-    
-    // The panel that serves as the board
-    private JPanel board;
-    
-    // A data structure that serves as a mapping between coordinates
-    // and the buttons (tiles) that make up the board
-    private CustomButton[][] buttonCoordinatesMap;
-    
+
+    // The component that serves as the board
+    private BoardView board;
+
+    // The disc on each tile (or null), and whether each tile can be played on
+    private Image[][] discs;
+    private boolean[][] enabled;
+
+    // What is told of the tiles that are clicked (or null)
+    private TileListener tileListener;
+
+    // The rows and columns of the tiles changed since the changes were last
+    // committed (none, when the first row is after the last one), and whether
+    // the changes will be committed once the current event has been handled
+    private int firstChangedRow;
+    private int lastChangedRow;
+    private int firstChangedCol;
+    private int lastChangedCol;
+    private boolean commitPending;
+
+    // For each tile (row * size + col): the side of the disc on it that it is
+    // being flipped from (or null), when the flip started (System.nanoTime(),
+    // or 0 until the changes are committed, so that the discs flipped by a move
+    // turn together), and the frame of the flip shown (0, when it is not being flipped)
+    private Image[] flippedFrom;
+    private long[] flipStarts;
+    private int[] flipFrames;
+
+    // The tiles whose discs are being flipped, and how many there are
+    private int[] flippingTiles;
+    private int flipping;
+
+    // What shows the next frame of every flip, while there are any
+    private final Timer flipTimer;
+
     // Whether a game has started on the board
     protected boolean gameStarted;
-    
+
+    // What draws the discs on the tiles, scaled to their size
+    private final DiscRenderer discRenderer;
+
     /**
      * Constructor for objects of class Board
      */
     public Board(int size)
     {
         // Set the board size and create a board
-        this.size = size;
-        buttonCoordinatesMap = new CustomButton[size][size];
-        makeGameBoard();
-        
-        // By default, no game has started on the board
-        this.gameStarted = false;
-    }
-
-    /**
-     * Make the game board.
-     */
-    private void makeGameBoard()
-    {
-        board = new JPanel();
-        board.setBorder(new LineBorder(null, 12));
-        board.setLayout(new GridLayout(size, size, 1, 1));
-        
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                CustomButton button = new CustomButton();
-                button.setBorder(new LineBorder(Color.WHITE));
-                button.setRolloverEnabled(false);
-                button.setFocusPainted(false);
-                button.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mouseEntered(MouseEvent e) 
-                    {
-                        if (gameStarted) {
-                            button.setBorder(new LineBorder(Color.BLACK, 3));
-                            button.getModel().setRollover(true);
-                        }
-                    }
-                    
-                    @Override
-                    public void mouseExited(MouseEvent e) 
-                    {
-                        if (gameStarted) {
-                            button.setBorder(new LineBorder(Color.WHITE));
-                            button.getModel().setRollover(false);
-                        }
-                    }
-                });
-                
-                buttonCoordinatesMap[i][j] = button;
-                board.add(button);
-            }
-        }
+        // (By default, no game has started on the board)
+        discRenderer = new DiscRenderer();
+        flipTimer = new Timer(1000 / FRAME_RATE, e -> animateFlips());
+        board = new BoardView();
+        setSize(size);
     }
-    
+
     /**
-     * Set the size of the board.
+     * Set the size of the board, emptying every tile.
      */
     public void setSize(int size)
     {
         this.size = size;
-        makeGameBoard();
+        discs = new Image[size][size];
+        enabled = new boolean[size][size];
+        flippedFrom = new Image[size * size];
+        flipStarts = new long[size * size];
+        flipFrames = new int[size * size];
+        flippingTiles = new int[size * size];
+        clear();
     }
-    
+
+    /**
+     * Empty every tile, and forget the game played on the board (and what was
+     * told of its tiles being clicked), so that a new game can be played on it
+     * without the board being made again.
+     */
+    public void clear()
+    {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                discs[row][col] = null;
+                enabled[row][col] = false;
+            }
+        }
+        for (int i = 0; i < flipping; i++) {
+            flippedFrom[flippingTiles[i]] = null;
+            flipFrames[flippingTiles[i]] = 0;
+        }
+        flipping = 0;
+        flipTimer.stop();
+
+        firstChangedRow = size;
+        lastChangedRow = -1;
+        firstChangedCol = size;
+        lastChangedCol = -1;
+        tileListener = null;
+        gameStarted = false;
+        board.tilesChanged();
+    }
+
     /**
      * Get the size of the board.
      */
@@ -96,7 +160,7 @@ public class Board
     {
         return size;
     }
-    
+
     /**
      * Set whether the game has started.
      */
@@ -104,7 +168,7 @@ public class Board
     {
         gameStarted = started;
     }
-    
+
     /**
      * Get whether the game has started.
      */
@@ -112,99 +176,491 @@ public class Board
     {
         return gameStarted;
     }
-    
+
     /**
-     * Get the JPanel that represents the game board.
+     * Get the component that represents the game board.
      */
-    public JPanel getPanel()
+    public JComponent getPanel()
     {
         return board;
     }
-    
+
+    /**
+     * Place a disc on a tile with a particular side facing up
+     * (or remove the disc from it, if the side is null). The tile
+     * is painted again when the changes are committed, and if the
+     * disc on it was turned over, it is shown being flipped.
+     */
+    public void setDisc(int row, int col, Image side)
+    {
+        Image previousSide = discs[row][col];
+        if (previousSide == side) {
+            return;
+        }
+
+        discs[row][col] = side;
+        if (previousSide != null && side != null) {
+            startFlip(row * size + col, previousSide);
+        }
+        else {
+            stopFlip(row * size + col);
+        }
+        tileChanged(row, col);
+    }
+
+    /**
+     * Mark a tile as changed, to be painted again when the changes
+     * are committed (once the current event has been handled, at the latest).
+     */
+    private void tileChanged(int row, int col)
+    {
+        firstChangedRow = Math.min(firstChangedRow, row);
+        lastChangedRow = Math.max(lastChangedRow, row);
+        firstChangedCol = Math.min(firstChangedCol, col);
+        lastChangedCol = Math.max(lastChangedCol, col);
+        if (! commitPending) {
+            commitPending = true;
+            SwingUtilities.invokeLater(this::commitChanges);
+        }
+    }
+
+    /**
+     * Paint the tiles changed since the changes were last committed
+     * again, with a single repaint of the smallest area covering them.
+     * (Every change is committed once the event that made it has been
+     * handled, if it has not been by then.)
+     */
+    public void commitChanges()
+    {
+        commitPending = false;
+        if (firstChangedRow > lastChangedRow) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < flipping; i++) {
+            if (flipStarts[flippingTiles[i]] == 0) {
+                flipStarts[flippingTiles[i]] = now;
+            }
+        }
+
+        board.repaintTiles(firstChangedRow, firstChangedCol, lastChangedRow, lastChangedCol);
+        firstChangedRow = size;
+        lastChangedRow = -1;
+        firstChangedCol = size;
+        lastChangedCol = -1;
+    }
+
+    /**
+     * Get the side of the disc occupying a tile facing up (or null, if it is empty).
+     */
+    public Image getDisc(int row, int col)
+    {
+        return discs[row][col];
+    }
+
+    /**
+     * Set whether a tile can be played on (clicked).
+     */
+    public void setTileEnabled(int row, int col, boolean tileEnabled)
+    {
+        enabled[row][col] = tileEnabled;
+    }
+
     /**
-     * Get the mapping between coordinates and the
-       buttons (tiles) that make up the board.
+     * Check if a tile can be played on (clicked).
      */
-    public CustomButton[][] getButtonCoordinatesMap()
+    public boolean isTileEnabled(int row, int col)
     {
-        return buttonCoordinatesMap;
+        return enabled[row][col];
+    }
+
+    /**
+     * Set what is told of the tiles that are clicked, and of the mouse moving
+     * off the tiles (or null, for nothing), in place of what was told before.
+     */
+    public void setTileListener(TileListener listener)
+    {
+        tileListener = listener;
+    }
+
+    /**
+     * Start showing the disc on a tile (row * size + col) being flipped
+     * from one of its sides (again from the start, if it was being flipped).
+     */
+    private void startFlip(int tile, Image from)
+    {
+        if (flipFrames[tile] == 0) {
+            flippingTiles[flipping] = tile;
+            flipping++;
+        }
+        flippedFrom[tile] = from;
+        flipStarts[tile] = 0;
+        flipFrames[tile] = 1;
+
+        if (! flipTimer.isRunning()) {
+            flipTimer.start();
+        }
+    }
+
+    /**
+     * Stop showing the disc on a tile (row * size + col) being flipped.
+     */
+    private void stopFlip(int tile)
+    {
+        for (int i = 0; i < flipping; i++) {
+            if (flippingTiles[i] == tile) {
+                flipping--;
+                flippingTiles[i] = flippingTiles[flipping];
+                flippedFrom[tile] = null;
+                flipFrames[tile] = 0;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Move every disc being flipped on to the frame reached in the time since
+     * its flip started (skipping any frames there was no time to show), finish
+     * the flips that are over, and paint the tiles that changed again together.
+     * (This method is invoked by the timer, FRAME_RATE times per second.)
+     */
+    private void animateFlips()
+    {
+        long now = System.nanoTime();
+        for (int i = flipping - 1; i >= 0; i--) {
+            int tile = flippingTiles[i];
+            if (flipStarts[tile] == 0) {
+                continue;
+            }
+
+            int frame = 1 + (int) ((now - flipStarts[tile]) / FRAME_NANOS);
+            if (frame >= DiscRenderer.FLIP_FRAMES) {
+                frame = 0;
+                flippedFrom[tile] = null;
+                flipping--;
+                flippingTiles[i] = flippingTiles[flipping];
+            }
+
+            if (frame != flipFrames[tile]) {
+                flipFrames[tile] = frame;
+                tileChanged(tile / size, tile % size);
+            }
+        }
+
+        if (flipping == 0) {
+            flipTimer.stop();
+        }
+        commitChanges();
+    }
+
+    /**
+     * Check if a point of the board's component is on a tile
+     * (rather than on the frame around the board, or between two tiles).
+     */
+    public boolean isOnTile(int x, int y)
+    {
+        return board.getTileAt(x, y) >= 0;
+    }
+
+    // ---- Inner interface ----
+
+    /**
+     * Something that is told of the tiles of the board that are clicked
+     * (such as a Game, which plays a move on them).
+     */
+    public interface TileListener
+    {
+        /**
+         * A tile that can be played on has been clicked.
+         */
+        void tileClicked(int row, int col);
+
+        /**
+         * The mouse has moved over the frame around the board,
+         * or between two of its tiles. (Nothing is done by default.)
+         */
+        default void mouseMovedOffTiles()
+        {
+        }
     }
 
     // ---- Inner class ----
-    
+
     /**
-     * A custom JButton that serves as a tile on the game board.
-     * 
+     * The component that serves as the game board, painting the tiles
+     * laid out as they would be in a GridLayout, inside a frame.
      */
-    protected class CustomButton extends JButton
-    { 
-        // The disc to be placed on the tile
-        private ImageIcon disc;
-    
+    private class BoardView extends JComponent
+    {
+        // The version of the component's serialized form (it is never serialized)
+        private static final long serialVersionUID = 1L;
+
+        // The size of the component the tiles were last laid out in, the size
+        // of each tile, and where the first one is (in pixels)
+        private int width;
+        private int height;
+        private int tileWidth;
+        private int tileHeight;
+        private int left;
+        private int top;
+
+        // The tile under the mouse, and the tile pressed (row * size + col, or -1),
+        // and whether the mouse is still over the tile pressed
+        private int rolloverTile;
+        private int pressedTile;
+        private boolean armed;
+
+        // The insets of a tile, and of the tile under the mouse, inside their borders,
+        // and the area to be painted (reused every time the board is painted)
+        private final Insets tileInsets;
+        private final Insets rolloverTileInsets;
+        private final Rectangle clip;
+
         /**
-         * Create a new, empty tile (button) that will be added to the board.
+         * Create the component, with no tile under the mouse.
          */
-        public CustomButton()
+        public BoardView()
         {
-            super();
-            disc = new ImageIcon();
+            rolloverTile = -1;
+            pressedTile = -1;
+            tileInsets = new Insets(TILE_BORDER, TILE_BORDER, TILE_BORDER, TILE_BORDER);
+            rolloverTileInsets = new Insets(ROLLOVER_TILE_BORDER, ROLLOVER_TILE_BORDER, ROLLOVER_TILE_BORDER, ROLLOVER_TILE_BORDER);
+            clip = new Rectangle();
+
+            setOpaque(true);
+            setBackground(UIManager.getColor("Panel.background"));
+            setBorder(new LineBorder(null, FRAME));
+
+            MouseAdapter mouseAdapter = new MouseAdapter() {
+                @Override
+                public void mouseMoved(MouseEvent e)
+                {
+                    int tile = getTileAt(e.getX(), e.getY());
+                    setRolloverTile(tile);
+                    if (tile < 0 && tileListener != null) {
+                        tileListener.mouseMovedOffTiles();
+                    }
+                }
+
+                @Override
+                public void mouseExited(MouseEvent e)
+                {
+                    setRolloverTile(-1);
+                }
+
+                @Override
+                public void mousePressed(MouseEvent e)
+                {
+                    int tile = getTileAt(e.getX(), e.getY());
+                    if (SwingUtilities.isLeftMouseButton(e) && tile >= 0 && enabled[tile / size][tile % size]) {
+                        pressedTile = tile;
+                        armed = true;
+                        repaintTile(tile);
+                    }
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e)
+                {
+                    int tile = getTileAt(e.getX(), e.getY());
+                    setRolloverTile(tile);
+                    if (pressedTile >= 0 && armed != (tile == pressedTile)) {
+                        armed = ! armed;
+                        repaintTile(pressedTile);
+                    }
+                }
+
+                @Override
+                public void mouseReleased(MouseEvent e)
+                {
+                    int tile = pressedTile;
+                    boolean clicked = armed;
+                    pressedTile = -1;
+                    armed = false;
+                    if (tile < 0) {
+                        return;
+                    }
+
+                    repaintTile(tile);
+                    int row = tile / size;
+                    int col = tile % size;
+                    if (clicked && enabled[row][col] && tileListener != null) {
+                        tileListener.tileClicked(row, col);
+                    }
+                }
+            };
+            addMouseListener(mouseAdapter);
+            addMouseMotionListener(mouseAdapter);
         }
-    
+
         /**
-         * Places a disc on a tile (button) with a particular side facing up.
+         * Forget the tile under the mouse and the tile pressed, and paint
+         * every tile again (after the board has changed size).
          */
-        public void setImage(Image image)
+        public void tilesChanged()
         {
-            disc.setImage(image);
+            rolloverTile = -1;
+            pressedTile = -1;
+            armed = false;
+            width = -1;
             repaint();
         }
-        
+
+        /**
+         * Paint a block of tiles (between two corner tiles) again (soon),
+         * and nothing else.
+         */
+        public void repaintTiles(int firstRow, int firstCol, int lastRow, int lastCol)
+        {
+            layOutTiles();
+            repaint(left + firstCol * (tileWidth + GAP),
+                    top + firstRow * (tileHeight + GAP),
+                    (lastCol - firstCol) * (tileWidth + GAP) + tileWidth,
+                    (lastRow - firstRow) * (tileHeight + GAP) + tileHeight);
+        }
+
+        /**
+         * Paint a tile (row * size + col) again (soon), and nothing else.
+         */
+        private void repaintTile(int tile)
+        {
+            repaintTiles(tile / size, tile % size, tile / size, tile % size);
+        }
+
+        /**
+         * Get the tile at a point of the component (row * size + col),
+         * or -1 if the point is not on a tile.
+         */
+        public int getTileAt(int x, int y)
+        {
+            layOutTiles();
+            if (x < left || y < top || tileWidth <= 0 || tileHeight <= 0) {
+                return -1;
+            }
+
+            int col = (x - left) / (tileWidth + GAP);
+            int row = (y - top) / (tileHeight + GAP);
+            if (row >= size || col >= size
+                || (x - left) % (tileWidth + GAP) >= tileWidth || (y - top) % (tileHeight + GAP) >= tileHeight) {
+                return -1;
+            }
+
+            return row * size + col;
+        }
+
+        /**
+         * Change the tile under the mouse, painting both tiles again.
+         */
+        private void setRolloverTile(int tile)
+        {
+            if (tile != rolloverTile) {
+                if (rolloverTile >= 0) {
+                    repaintTile(rolloverTile);
+                }
+                if (tile >= 0) {
+                    repaintTile(tile);
+                }
+                rolloverTile = tile;
+            }
+        }
+
         /**
-         * Gets the disc occupying a tile (button) on the board.
+         * Compute the size of the tiles and where the first one is, if the
+         * component has changed size: every tile is as large as the others,
+         * with the pixels left over shared around them (as by a GridLayout).
          */
-        public Image getImage()
+        private void layOutTiles()
         {
-            return disc.getImage();
+            if (width == getWidth() && height == getHeight()) {
+                return;
+            }
+
+            width = getWidth();
+            height = getHeight();
+            int innerWidth = width - 2 * FRAME - (size - 1) * GAP;
+            int innerHeight = height - 2 * FRAME - (size - 1) * GAP;
+            tileWidth = innerWidth / size;
+            tileHeight = innerHeight / size;
+            left = FRAME + (innerWidth - tileWidth * size) / 2;
+            top = FRAME + (innerHeight - tileHeight * size) / 2;
         }
-        
+
         // The following methods are redefinitions of methods
         // inherited from the superclass.
-        
+
         /**
-         * Allow images used to represent the disc sides to be placed on the tile
-         * and rescaled with the tile size without minimal effect on their quality.
-         * 
+         * Paint the tiles that need to be painted, with the disc (if any) on each of them.
+         *
          * @param g The graphics context that can be used to draw on this component.
          */
         @Override
-        public void paintComponent(Graphics g)
+        protected void paintComponent(Graphics g)
         {
             Graphics2D graphics2D = (Graphics2D) g;
-            Insets insets = getInsets();
-            
-            RenderingHints renderingHints = new RenderingHints(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            renderingHints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            graphics2D.setRenderingHints(renderingHints);
-            
-            if (getModel().isPressed()) {
-                graphics2D.setColor(new Color(116, 161, 109).darker());
-            }
-            else if(getModel().isRollover()) {
-                graphics2D.setColor(new Color(116, 161, 109).brighter());
+            graphics2D.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            layOutTiles();
+            graphics2D.getClipBounds(clip);
+            if (clip.isEmpty()) {
+                clip.setBounds(0, 0, width, height);
+            }
+            graphics2D.setColor(getBackground());
+            graphics2D.fillRect(clip.x, clip.y, clip.width, clip.height);
+            if (tileWidth <= 0 || tileHeight <= 0) {
+                return;
+            }
+
+            // Only the tiles that overlap the area to be painted are painted
+            int firstCol = Math.max(0, (clip.x - left) / (tileWidth + GAP));
+            int lastCol = Math.min(size - 1, (clip.x + clip.width - left) / (tileWidth + GAP));
+            int firstRow = Math.max(0, (clip.y - top) / (tileHeight + GAP));
+            int lastRow = Math.min(size - 1, (clip.y + clip.height - top) / (tileHeight + GAP));
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstCol; col <= lastCol; col++) {
+                    paintTile(graphics2D, row, col);
+                }
+            }
+        }
+
+        /**
+         * Paint a tile, with its border, and the disc on it (if any).
+         */
+        private void paintTile(Graphics2D graphics2D, int row, int col)
+        {
+            int x = left + col * (tileWidth + GAP);
+            int y = top + row * (tileHeight + GAP);
+            int tile = row * size + col;
+            boolean rollover = gameStarted && tile == rolloverTile;
+
+            if (tile == pressedTile && armed) {
+                graphics2D.setColor(PRESSED_TILE_COLOUR);
+            }
+            else if (rollover) {
+                graphics2D.setColor(ROLLOVER_TILE_COLOUR);
             }
             else {
-                graphics2D.setColor(new Color(116, 161, 109));
-            }
-            graphics2D.fill(new Rectangle(0, 0, getWidth(), getHeight()));
-            
-            if (disc != null) {
-                graphics2D.drawImage(disc.getImage(), 
-                                     (-(getWidth() - insets.left) / 2),
-                                     (-(getHeight() - insets.top) / 2), 
-                        	     (getWidth() - insets.left) * 2,
-                        	     (getHeight() - insets.top) * 2,
-                        	     null);
+                graphics2D.setColor(TILE_COLOUR);
+            }
+            graphics2D.fillRect(x, y, tileWidth, tileHeight);
+
+            Insets insets = rollover ? rolloverTileInsets : tileInsets;
+            if (discs[row][col] != null && flipFrames[tile] > 0) {
+                discRenderer.drawFlippingDisc(graphics2D, flippedFrom[tile], discs[row][col], flipFrames[tile],
+                                              x, y, tileWidth, tileHeight, insets);
             }
+            else if (discs[row][col] != null) {
+                discRenderer.drawDisc(graphics2D, discs[row][col], x, y, tileWidth, tileHeight, insets);
+            }
+
+            // The border is drawn as four strips inside the tile
+            int border = insets.left;
+            graphics2D.setColor(rollover ? ROLLOVER_TILE_BORDER_COLOUR : TILE_BORDER_COLOUR);
+            graphics2D.fillRect(x, y, tileWidth, border);
+            graphics2D.fillRect(x, y + tileHeight - border, tileWidth, border);
+            graphics2D.fillRect(x, y + border, border, tileHeight - 2 * border);
+            graphics2D.fillRect(x + tileWidth - border, y + border, border, tileHeight - 2 * border);
         }
     }
 }
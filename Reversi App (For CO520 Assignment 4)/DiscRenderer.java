@@ -0,0 +1,187 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the discs on the tiles of a board. Each side of a disc is scaled
+ * to the size of the tiles once, with the best quality, and the scaled
+ * image is then copied onto every tile it is on, until the tiles change
+ * size (when the window is resized), rather than the full-size image
+ * being scaled again for every tile every time it is painted.
+ *
+ * A disc being flipped is drawn as one of FLIP_FRAMES frames, turning
+ * from one side to the other about its vertical axis. The frames of each
+ * side are drawn from its scaled image once, the first time a disc is
+ * flipped on tiles of that size, and are then only copied onto the tiles.
+ *
+ * A renderer keeps the images it has scaled, so it must only be used by
+ * the thread the window is drawn on.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class DiscRenderer
+{
+    // The number of frames a disc takes to turn over: frame 0 shows the side
+    // it is turned from, and each of the frames after it turns the disc a
+    // little further, until it shows the other side
+    public static final int FLIP_FRAMES = 12;
+
+    // The number of scaled images kept: both sides of a disc, on tiles with
+    // and without the wider border they have under the mouse, at two sizes
+    private static final int CACHE_SIZE = 8;
+
+    // For every scaled image kept: the image it was scaled from, the size and
+    // insets of the tiles, and the screen, it was scaled for, the image itself,
+    // and the frames of that side turning over (once a disc has been flipped)
+    private final Image[] sources;
+    private final int[] widths;
+    private final int[] heights;
+    private final int[] lefts;
+    private final int[] tops;
+    private final GraphicsConfiguration[] screens;
+    private final BufferedImage[] images;
+    private final BufferedImage[][] flipFrames;
+
+    // Where the next image scaled is kept (replacing the oldest one)
+    private int next;
+
+    /**
+     * Create a renderer that has not scaled any image yet.
+     */
+    public DiscRenderer()
+    {
+        sources = new Image[CACHE_SIZE];
+        widths = new int[CACHE_SIZE];
+        heights = new int[CACHE_SIZE];
+        lefts = new int[CACHE_SIZE];
+        tops = new int[CACHE_SIZE];
+        screens = new GraphicsConfiguration[CACHE_SIZE];
+        images = new BufferedImage[CACHE_SIZE];
+        flipFrames = new BufferedImage[CACHE_SIZE][];
+    }
+
+    /**
+     * Draw a side of a disc (an image of it, with room around it) on a tile of
+     * a width and height, at a point, inside its insets, scaling the image the
+     * first time it is drawn at that size.
+     */
+    public void drawDisc(Graphics2D graphics2D, Image disc, int x, int y, int width, int height, Insets insets)
+    {
+        if (width <= insets.left || height <= insets.top) {
+            return;
+        }
+
+        int i = find(disc, width, height, insets, graphics2D.getDeviceConfiguration());
+        graphics2D.drawImage(images[i], x, y, width, height, null);
+    }
+
+    /**
+     * Draw a frame (from 1 to FLIP_FRAMES - 1) of a disc being flipped from
+     * one side to the other on a tile of a width and height, at a point,
+     * inside its insets, drawing the frames of the side shown the first time
+     * it is flipped at that size.
+     */
+    public void drawFlippingDisc(Graphics2D graphics2D, Image from, Image to, int frame,
+                                 int x, int y, int width, int height, Insets insets)
+    {
+        if (width <= insets.left || height <= insets.top) {
+            return;
+        }
+
+        // The disc shows the side it is turned from until it is edge on
+        Image disc = (frame * 2 < FLIP_FRAMES) ? from : to;
+        int i = find(disc, width, height, insets, graphics2D.getDeviceConfiguration());
+        if (flipFrames[i] == null) {
+            flipFrames[i] = turn(images[i]);
+        }
+
+        if (flipFrames[i][frame] != null) {
+            graphics2D.drawImage(flipFrames[i][frame], x, y, width, height, null);
+        }
+    }
+
+    /**
+     * Find the image of a side of a disc scaled to a tile, on a screen,
+     * scaling it (in place of the oldest image kept) if it is not kept.
+     */
+    private int find(Image disc, int width, int height, Insets insets, GraphicsConfiguration screen)
+    {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (sources[i] == disc && widths[i] == width && heights[i] == height
+                && lefts[i] == insets.left && tops[i] == insets.top && screens[i] == screen) {
+                return i;
+            }
+        }
+
+        int i = next;
+        next = (next + 1) % CACHE_SIZE;
+        sources[i] = disc;
+        widths[i] = width;
+        heights[i] = height;
+        lefts[i] = insets.left;
+        tops[i] = insets.top;
+        screens[i] = screen;
+        images[i] = scale(disc, width, height, insets, screen);
+        flipFrames[i] = null;
+
+        return i;
+    }
+
+    /**
+     * Scale a side of a disc to a tile, in the pixels of a screen (which
+     * may have more of them than the tile's size, when it is scaled up). The
+     * image is drawn at twice the size of the inside of the tile, centred on
+     * it, so that the disc in the middle of the image fills the tile.
+     */
+    private static BufferedImage scale(Image disc, int width, int height, Insets insets, GraphicsConfiguration screen)
+    {
+        AffineTransform screenTransform = (screen == null) ? new AffineTransform() : screen.getDefaultTransform();
+        double scaleX = screenTransform.getScaleX();
+        double scaleY = screenTransform.getScaleY();
+        BufferedImage scaled = new BufferedImage((int) Math.ceil(width * scaleX), (int) Math.ceil(height * scaleY),
+                                                 BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D graphics2D = scaled.createGraphics();
+        graphics2D.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics2D.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics2D.scale(scaleX, scaleY);
+        graphics2D.drawImage(disc,
+                             (-(width - insets.left) / 2),
+                             (-(height - insets.top) / 2),
+                             (width - insets.left) * 2,
+                             (height - insets.top) * 2,
+                             null);
+        graphics2D.dispose();
+
+        return scaled;
+    }
+
+    /**
+     * Draw the frames of a side of a disc (scaled to a tile) turning over:
+     * in frame k, it is squeezed about the middle of the tile to the width it
+     * has when it has turned k / FLIP_FRAMES of the way over (none, when it is
+     * edge on). Frame 0 is left out, as the side is then simply drawn.
+     */
+    private static BufferedImage[] turn(BufferedImage scaled)
+    {
+        int width = scaled.getWidth();
+        int height = scaled.getHeight();
+        BufferedImage[] frames = new BufferedImage[FLIP_FRAMES];
+        for (int k = 1; k < FLIP_FRAMES; k++) {
+            int frameWidth = (int) Math.round(width * Math.abs(Math.cos(Math.PI * k / FLIP_FRAMES)));
+            if (frameWidth == 0) {
+                continue;
+            }
+
+            frames[k] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics2D = frames[k].createGraphics();
+            graphics2D.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics2D.drawImage(scaled, (width - frameWidth) / 2, 0, frameWidth, height, null);
+            graphics2D.dispose();
+        }
+
+        return frames;
+    }
+}
@@ -0,0 +1,768 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays the end of a game perfectly. Once few enough tiles are left
+ * empty, every line of play to the end of the game can be searched, so
+ * the solver finds the exact final disc difference each move leads to,
+ * instead of an estimate.
+ *
+ * The solver works on the bitboards of boards of up to 8 x 8 tiles
+ * (see BitboardPosition), searching with alpha-beta and a null window for
+ * every move after the first. Moves are tried in the order most likely to
+ * cut the search short: while many tiles are empty, the moves that leave
+ * the opponent the fewest replies first ("fastest first", looking one more
+ * turn ahead while very many tiles are empty), and near the end,
+ * the moves in regions of the board with an odd number of empty tiles first
+ * (parity). The last four empty tiles are searched by routines that take
+ * them as arguments, without creating or filling any arrays. Positions
+ * with many empty tiles are kept in a transposition table, as they are
+ * often reached again through another order of the same moves.
+ *
+ * The moves of the position solved can be shared out between several threads.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class EndgameSolver
+{
+    // The number of empty tiles from which moves are ordered fastest first,
+    // and from which they are ordered by searching one more turn ahead
+    // (Below them, ordering costs more than it saves.)
+    private static final int FASTEST_FIRST_EMPTIES = 5;
+    private static final int LOOKAHEAD_EMPTIES = 12;
+
+    // The number of entries in the transposition table, by default
+    // (a power of two - 16 MB)
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    // The number of empty tiles from which positions are kept in the transposition table
+    private static final int TABLE_EMPTIES = 6;
+
+    // The number of positions searched between two looks at the clock
+    // (a power of two)
+    private static final int CLOCK_INTERVAL = 4096;
+
+    // The size of the board
+    // (The board is a size x size grid)
+    private final int size;
+
+    // The tiles on the board, and the four regions (quarters) of the board
+    private final long boardMask;
+    private final long[] regions;
+    private final long corners;
+
+    // A score larger than any final disc difference
+    private final int infinity;
+
+    // The results of the positions searched, shared by all threads
+    private final TranspositionTable table;
+
+    // The number of threads that search
+    private int threads;
+
+    // When the search must stop, and whether it has
+    // (set by any thread, and read by all of them)
+    private long deadline;
+    private volatile boolean stopped;
+
+    // The result of the last search: the move chosen, the final disc difference
+    // it leads to, the number of positions searched, and the time taken (in nanoseconds)
+    private int bestMove;
+    private int score;
+    private long nodes;
+    private long time;
+
+    /**
+     * Create a solver for size x size boards.
+     */
+    public EndgameSolver(int size)
+    {
+        this(size, DEFAULT_TABLE_ENTRIES);
+    }
+
+    /**
+     * Create a solver for size x size boards, with a transposition
+     * table of a number of entries (a power of two).
+     */
+    public EndgameSolver(int size, int tableEntries)
+    {
+        if (size < 1 || size > BitboardPosition.MAX_SIZE) {
+            throw new IllegalArgumentException("A " + size + " x " + size + " board does not fit in a bitboard.");
+        }
+
+        this.size = size;
+        boardMask = (size == BitboardPosition.MAX_SIZE) ? -1L : (1L << (size * size)) - 1;
+        corners = 1L | (1L << (size - 1)) | (1L << (size * (size - 1))) | (1L << (size * size - 1));
+        regions = new long[4];
+        int half = (size + 1) / 2;
+        for (int square = 0; square < size * size; square++) {
+            int region = ((square / size < half) ? 0 : 2) + ((square % size < half) ? 0 : 1);
+            regions[region] |= 1L << square;
+        }
+        infinity = size * size + 1;
+        table = new TranspositionTable(tableEntries);
+        threads = 1;
+        bestMove = Position.PASS;
+    }
+
+    /**
+     * Get the size of the boards the solver is for.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Forget the results of every earlier search.
+     */
+    public void clear()
+    {
+        table.clear();
+    }
+
+    /**
+     * Set the number of threads that search.
+     */
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread must search.");
+        }
+
+        this.threads = threads;
+    }
+
+    /**
+     * Solve a position: find the move that leads to the best final disc
+     * difference for the player to move, whatever the opponent plays.
+     * The position is left as it was.
+     */
+    public void solve(BitboardPosition position)
+    {
+        solve(position, 0);
+    }
+
+    /**
+     * Solve a position, unless it takes longer than a number of
+     * milliseconds (or 0, for no limit).
+     *
+     * @return Whether the position was solved.
+     */
+    public boolean solve(BitboardPosition position, long timeLimit)
+    {
+        if (position.getSize() != size) {
+            throw new IllegalArgumentException("The solver is for " + size + " x " + size + " boards.");
+        }
+
+        long start = System.nanoTime();
+        deadline = (timeLimit > 0) ? start + timeLimit * 1000000L : Long.MAX_VALUE;
+        stopped = Thread.currentThread().isInterrupted();
+        nodes = 0;
+        table.newSearch();
+
+        boolean blackToMove = position.getSideToMove() == Position.BLACK;
+        long own = blackToMove ? position.getBlack() : position.getWhite();
+        long opponent = blackToMove ? position.getWhite() : position.getBlack();
+
+        Worker main = new Worker();
+        long moves = BitboardPosition.legalMoves(own, opponent, size);
+        if (moves == 0) {
+            bestMove = Position.PASS;
+            score = main.search(own, opponent, -infinity, infinity, false);
+            nodes = main.nodes;
+        }
+        else {
+            int empties = Long.bitCount(~(own | opponent) & boardMask);
+            int[] rootMoves = main.squares[empties];
+            long[] rootFlips = main.flips[empties];
+            int count = main.order(own, opponent, moves, ~(own | opponent) & boardMask, empties, true);
+            int[] squares = rootMoves.clone();
+            long[] flips = rootFlips.clone();
+
+            // The first move is searched alone, to get a score for the others to beat
+            bestMove = squares[0];
+            score = -main.search(opponent & ~flips[0], own | flips[0] | (1L << squares[0]), -infinity, infinity, false);
+
+            AtomicInteger next = new AtomicInteger(1);
+            Worker[] helpers = new Worker[Math.min(threads, count) - 1];
+            Thread[] helperThreads = new Thread[helpers.length];
+            for (int i = 0; i < helpers.length; i++) {
+                Worker helper = new Worker();
+                helpers[i] = helper;
+                helperThreads[i] = new Thread(() -> helper.searchRootMoves(own, opponent, squares, flips, count, next),
+                                              "Endgame helper " + (i + 1));
+                helperThreads[i].setDaemon(true);
+                helperThreads[i].start();
+            }
+
+            main.searchRootMoves(own, opponent, squares, flips, count, next);
+            nodes = main.nodes;
+            Engine.joinHelpers(helperThreads);
+            for (Worker helper : helpers) {
+                nodes += helper.nodes;
+            }
+        }
+
+        time = System.nanoTime() - start;
+        return ! stopped;
+    }
+
+    /**
+     * Stop the search being made (from another thread), so that solve
+     * returns false. A search made on a thread that has been interrupted
+     * stops in the same way.
+     */
+    public void stop()
+    {
+        stopped = true;
+    }
+
+    /**
+     * Compute a hash of a position from the bitboards of the player
+     * to move and of the opponent, spreading every bit of them over
+     * every bit of the hash.
+     */
+    private static long hash(long own, long opponent)
+    {
+        long hash = own * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(opponent * 0xC2B2AE3D27D4EB4FL, 31);
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Get the score every move left to search has to beat.
+     */
+    private synchronized int getBestScore()
+    {
+        return score;
+    }
+
+    /**
+     * Keep the score of a move of the position solved,
+     * if it is better than every other one so far.
+     */
+    private synchronized void report(int move, int moveScore)
+    {
+        if (moveScore > score) {
+            score = moveScore;
+            bestMove = move;
+        }
+    }
+
+    /**
+     * Get the best move of the last position solved (or PASS).
+     */
+    public int getBestMove()
+    {
+        return bestMove;
+    }
+
+    /**
+     * Get the final disc difference (the discs of the player to move minus
+     * those of the opponent) that the best move of the last position solved
+     * leads to.
+     */
+    public int getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Get the number of positions searched by the last search (by all threads).
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Get the time taken by the last search, in milliseconds.
+     */
+    public long getTime()
+    {
+        return time / 1000000L;
+    }
+
+    /**
+     * Get the number of positions searched per second by the last search.
+     */
+    public long getNodesPerSecond()
+    {
+        return (time == 0) ? 0 : nodes * 1000000000L / time;
+    }
+
+    // ---- Inner class ----
+
+    /**
+     * One of the threads of a search. In every method, "own" is the bitboard
+     * of the player to move and "opponent" that of the other player, and the
+     * score returned is for the player to move.
+     */
+    private class Worker
+    {
+        // For every number of empty tiles, the moves to search (in order)
+        // and the discs each of them flips
+        private final int[][] squares;
+        private final long[][] flips;
+
+        // For every number of empty tiles, how promising each move is
+        // (the lower, the better)
+        private final int[][] keys;
+
+        // The number of positions searched
+        private long nodes;
+
+        /**
+         * Create a worker, with room for the moves of every position it will search.
+         */
+        public Worker()
+        {
+            squares = new int[size * size + 1][size * size];
+            flips = new long[size * size + 1][size * size];
+            keys = new int[size * size + 1][size * size];
+        }
+
+        /**
+         * Search the moves of the position solved that have not been taken
+         * by another thread, with a null window around the best score so far
+         * (and again with a full window, for moves that beat it).
+         */
+        public void searchRootMoves(long own, long opponent, int[] rootMoves, long[] rootFlips, int count, AtomicInteger next)
+        {
+            for (int i = next.getAndIncrement(); i < count && ! stopped; i = next.getAndIncrement()) {
+                long newOwn = opponent & ~rootFlips[i];
+                long newOpponent = own | rootFlips[i] | (1L << rootMoves[i]);
+                int alpha = getBestScore();
+                int moveScore = -search(newOwn, newOpponent, -alpha - 1, -alpha, false);
+                if (moveScore > alpha && ! stopped) {
+                    moveScore = -search(newOwn, newOpponent, -infinity, -alpha, false);
+                }
+                if (! stopped) {
+                    report(rootMoves[i], moveScore);
+                }
+            }
+        }
+
+        /**
+         * Compute the final disc difference of the current position, with both
+         * players playing perfectly, if it is within the (alpha, beta) window
+         * (and otherwise, a bound of it outside of the window).
+         *
+         * @param passed Whether the opponent has just passed.
+         */
+        public int search(long own, long opponent, int alpha, int beta, boolean passed)
+        {
+            nodes++;
+            if ((nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+                stopped = true;
+            }
+            if (stopped) {
+                return 0;
+            }
+
+            long empty = ~(own | opponent) & boardMask;
+            int empties = Long.bitCount(empty);
+            if (empties <= 4) {
+                return searchLast(own, opponent, alpha, beta, empty, empties);
+            }
+
+            long moves = BitboardPosition.legalMoves(own, opponent, size);
+            if (moves == 0) {
+                if (passed) {
+                    return Long.bitCount(own) - Long.bitCount(opponent);
+                }
+                return -search(opponent, own, -beta, -alpha, true);
+            }
+
+            long hash = 0;
+            int storedMove = Position.PASS;
+            if (empties >= TABLE_EMPTIES) {
+                hash = hash(own, opponent);
+                long stored = table.probe(hash);
+                if (stored != 0) {
+                    int storedScore = TranspositionTable.getScore(stored);
+                    int bound = TranspositionTable.getBound(stored);
+                    if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && storedScore >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && storedScore <= alpha)) {
+                        return storedScore;
+                    }
+                    storedMove = TranspositionTable.getMove(stored);
+                }
+            }
+
+            int count = order(own, opponent, moves, empty, empties, empties > FASTEST_FIRST_EMPTIES);
+            int[] moveSquares = squares[empties];
+            long[] moveFlips = flips[empties];
+
+            // Search the best move found before first
+            if (storedMove != Position.PASS) {
+                for (int i = 1; i < count; i++) {
+                    if (moveSquares[i] == storedMove) {
+                        long storedFlips = moveFlips[i];
+                        System.arraycopy(moveSquares, 0, moveSquares, 1, i);
+                        System.arraycopy(moveFlips, 0, moveFlips, 1, i);
+                        moveSquares[0] = storedMove;
+                        moveFlips[0] = storedFlips;
+                        break;
+                    }
+                }
+            }
+
+            int originalAlpha = alpha;
+            int best = -infinity;
+            int bestSquare = Position.PASS;
+            for (int i = 0; i < count; i++) {
+                long newOwn = opponent & ~moveFlips[i];
+                long newOpponent = own | moveFlips[i] | (1L << moveSquares[i]);
+
+                // Every move after the first only has to be shown not to beat alpha
+                int moveScore;
+                if (i == 0) {
+                    moveScore = -search(newOwn, newOpponent, -beta, -alpha, false);
+                }
+                else {
+                    moveScore = -search(newOwn, newOpponent, -alpha - 1, -alpha, false);
+                    if (moveScore > alpha && moveScore < beta) {
+                        moveScore = -search(newOwn, newOpponent, -beta, -alpha, false);
+                    }
+                }
+
+                if (moveScore > best) {
+                    best = moveScore;
+                    bestSquare = moveSquares[i];
+                    if (best > alpha) {
+                        alpha = best;
+                        if (alpha >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            if (empties >= TABLE_EMPTIES && ! stopped) {
+                int bound = TranspositionTable.EXACT;
+                if (best <= originalAlpha) {
+                    bound = TranspositionTable.UPPER_BOUND;
+                }
+                else if (best >= beta) {
+                    bound = TranspositionTable.LOWER_BOUND;
+                }
+                table.store(hash, empties, best, bound, bestSquare);
+            }
+
+            return best;
+        }
+
+        /**
+         * Put the moves of a position, and the discs they flip, in the order they
+         * should be searched in: by the number of replies they leave the opponent
+         * (fewest first, and with many empty tiles, by the difference between the
+         * number of moves each player has after the best of those replies), if
+         * asked to, and then by the parity of the region they
+         * are in: moves in regions with an odd number of empty tiles come before
+         * the others (in such a region, the player to move can expect to play last).
+         *
+         * @return The number of moves.
+         */
+        public int order(long own, long opponent, long moves, long empty, int empties, boolean fastestFirst)
+        {
+            int[] moveSquares = squares[empties];
+            long[] moveFlips = flips[empties];
+            int[] moveKeys = keys[empties];
+
+            long oddRegions = 0;
+            for (long region : regions) {
+                if ((Long.bitCount(empty & region) & 1) != 0) {
+                    oddRegions |= region;
+                }
+            }
+
+            int count = 0;
+            for (long bits = moves; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                long flipped = BitboardPosition.flips(own, opponent, square, size);
+                int key = ((oddRegions & (1L << square)) != 0) ? 0 : 1;
+                if (fastestFirst) {
+                    long newOwn = opponent & ~flipped;
+                    long newOpponent = own | flipped | (1L << square);
+                    key += 2 * mobility(newOwn, newOpponent, (empties >= LOOKAHEAD_EMPTIES) ? 1 : 0);
+                }
+
+                // Insert the move among those already ordered
+                int i = count++;
+                while (i > 0 && moveKeys[i - 1] > key) {
+                    moveSquares[i] = moveSquares[i - 1];
+                    moveFlips[i] = moveFlips[i - 1];
+                    moveKeys[i] = moveKeys[i - 1];
+                    i--;
+                }
+                moveSquares[i] = square;
+                moveFlips[i] = flipped;
+                moveKeys[i] = key;
+            }
+
+            return count;
+        }
+
+        /**
+         * Estimate how good a position is for the player to move, from the
+         * number of moves each player has (with corners counting twice), after
+         * searching a number of turns ahead (or from the number of moves the
+         * player has, if no turns are searched).
+         */
+        private int mobility(long own, long opponent, int turns)
+        {
+            long moves = BitboardPosition.legalMoves(own, opponent, size);
+            if (turns == 0) {
+                return Long.bitCount(moves) + Long.bitCount(moves & corners);
+            }
+            if (moves == 0) {
+                return -mobility(opponent, own, 0);
+            }
+
+            int best = -infinity;
+            for (long bits = moves; bits != 0; bits &= bits - 1) {
+                int square = Long.numberOfTrailingZeros(bits);
+                long flipped = BitboardPosition.flips(own, opponent, square, size);
+                long newOwn = opponent & ~flipped;
+                long newOpponent = own | flipped | (1L << square);
+                int score = mobility(newOpponent, newOwn, 0) - mobility(newOwn, newOpponent, 0);
+                best = Math.max(best, score);
+            }
+
+            return best;
+        }
+
+        /**
+         * Search a position with four empty tiles or fewer, handing its
+         * empty tiles to the routine for their number, those in regions with
+         * an odd number of empty tiles first.
+         */
+        private int searchLast(long own, long opponent, int alpha, int beta, long empty, int empties)
+        {
+            long odd = 0;
+            for (long region : regions) {
+                if ((Long.bitCount(empty & region) & 1) != 0) {
+                    odd |= empty & region;
+                }
+            }
+            long even = empty & ~odd;
+
+            int square1 = -1;
+            int square2 = -1;
+            int square3 = -1;
+            int square4 = -1;
+            for (int i = 0; i < empties; i++) {
+                int square;
+                if (odd != 0) {
+                    square = Long.numberOfTrailingZeros(odd);
+                    odd &= odd - 1;
+                }
+                else {
+                    square = Long.numberOfTrailingZeros(even);
+                    even &= even - 1;
+                }
+
+                if (i == 0) {
+                    square1 = square;
+                }
+                else if (i == 1) {
+                    square2 = square;
+                }
+                else if (i == 2) {
+                    square3 = square;
+                }
+                else {
+                    square4 = square;
+                }
+            }
+
+            switch (empties) {
+                case 4:
+                    return searchLast4(own, opponent, alpha, beta, square1, square2, square3, square4, false);
+                case 3:
+                    return searchLast3(own, opponent, alpha, beta, square1, square2, square3, false);
+                case 2:
+                    return searchLast2(own, opponent, alpha, beta, square1, square2, false);
+                case 1:
+                    return searchLast1(own, opponent, square1);
+                default:
+                    return Long.bitCount(own) - Long.bitCount(opponent);
+            }
+        }
+
+        /**
+         * Search a position with four empty tiles.
+         */
+        private int searchLast4(long own, long opponent, int alpha, int beta,
+                                int square1, int square2, int square3, int square4, boolean passed)
+        {
+            nodes++;
+            int best = -infinity;
+
+            long flipped = BitboardPosition.flips(own, opponent, square1, size);
+            if (flipped != 0) {
+                best = -searchLast3(opponent & ~flipped, own | flipped | (1L << square1), -beta, -alpha,
+                                    square2, square3, square4, false);
+                if (best >= beta) {
+                    return best;
+                }
+                alpha = Math.max(alpha, best);
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square2, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast3(opponent & ~flipped, own | flipped | (1L << square2), -beta, -alpha,
+                                             square1, square3, square4, false);
+                if (moveScore > best) {
+                    best = moveScore;
+                    if (best >= beta) {
+                        return best;
+                    }
+                    alpha = Math.max(alpha, best);
+                }
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square3, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast3(opponent & ~flipped, own | flipped | (1L << square3), -beta, -alpha,
+                                             square1, square2, square4, false);
+                if (moveScore > best) {
+                    best = moveScore;
+                    if (best >= beta) {
+                        return best;
+                    }
+                    alpha = Math.max(alpha, best);
+                }
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square4, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast3(opponent & ~flipped, own | flipped | (1L << square4), -beta, -alpha,
+                                             square1, square2, square3, false);
+                if (moveScore > best) {
+                    best = moveScore;
+                }
+            }
+
+            if (best == -infinity) {
+                if (passed) {
+                    return Long.bitCount(own) - Long.bitCount(opponent);
+                }
+                return -searchLast4(opponent, own, -beta, -alpha, square1, square2, square3, square4, true);
+            }
+
+            return best;
+        }
+
+        /**
+         * Search a position with three empty tiles.
+         */
+        private int searchLast3(long own, long opponent, int alpha, int beta,
+                                int square1, int square2, int square3, boolean passed)
+        {
+            nodes++;
+            int best = -infinity;
+
+            long flipped = BitboardPosition.flips(own, opponent, square1, size);
+            if (flipped != 0) {
+                best = -searchLast2(opponent & ~flipped, own | flipped | (1L << square1), -beta, -alpha,
+                                    square2, square3, false);
+                if (best >= beta) {
+                    return best;
+                }
+                alpha = Math.max(alpha, best);
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square2, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast2(opponent & ~flipped, own | flipped | (1L << square2), -beta, -alpha,
+                                             square1, square3, false);
+                if (moveScore > best) {
+                    best = moveScore;
+                    if (best >= beta) {
+                        return best;
+                    }
+                    alpha = Math.max(alpha, best);
+                }
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square3, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast2(opponent & ~flipped, own | flipped | (1L << square3), -beta, -alpha,
+                                             square1, square2, false);
+                if (moveScore > best) {
+                    best = moveScore;
+                }
+            }
+
+            if (best == -infinity) {
+                if (passed) {
+                    return Long.bitCount(own) - Long.bitCount(opponent);
+                }
+                return -searchLast3(opponent, own, -beta, -alpha, square1, square2, square3, true);
+            }
+
+            return best;
+        }
+
+        /**
+         * Search a position with two empty tiles.
+         */
+        private int searchLast2(long own, long opponent, int alpha, int beta, int square1, int square2, boolean passed)
+        {
+            nodes++;
+            int best = -infinity;
+
+            long flipped = BitboardPosition.flips(own, opponent, square1, size);
+            if (flipped != 0) {
+                best = -searchLast1(opponent & ~flipped, own | flipped | (1L << square1), square2);
+                if (best >= beta) {
+                    return best;
+                }
+            }
+
+            flipped = BitboardPosition.flips(own, opponent, square2, size);
+            if (flipped != 0) {
+                int moveScore = -searchLast1(opponent & ~flipped, own | flipped | (1L << square2), square1);
+                if (moveScore > best) {
+                    best = moveScore;
+                }
+            }
+
+            if (best == -infinity) {
+                if (passed) {
+                    return Long.bitCount(own) - Long.bitCount(opponent);
+                }
+                return -searchLast2(opponent, own, -beta, -alpha, square1, square2, true);
+            }
+
+            return best;
+        }
+
+        /**
+         * Search a position with one empty tile: the player to move plays on
+         * it if they can, otherwise the opponent does if they can.
+         */
+        private int searchLast1(long own, long opponent, int square)
+        {
+            nodes++;
+            int discDifference = Long.bitCount(own) - Long.bitCount(opponent);
+
+            long flipped = BitboardPosition.flips(own, opponent, square, size);
+            if (flipped != 0) {
+                return discDifference + 1 + 2 * Long.bitCount(flipped);
+            }
+
+            flipped = BitboardPosition.flips(opponent, own, square, size);
+            if (flipped != 0) {
+                return discDifference - 1 - 2 * Long.bitCount(flipped);
+            }
+
+            return discDifference;
+        }
+    }
+}
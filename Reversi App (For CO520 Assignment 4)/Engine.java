@@ -0,0 +1,87 @@
+/**
+ * A computer player, which chooses the move to play on a position in
+ * (about) the time it is allowed for a move, on one or more threads.
+ * After every search, how much it searched (and how fast) can be read.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface Engine
+{
+    /**
+     * Choose the move to play for the player to move on a position.
+     * The position is left as it was.
+     *
+     * @return The square to play on, or PASS if the player cannot move.
+     */
+    int search(Position position);
+
+    /**
+     * Set the number of threads that search.
+     */
+    void setThreads(int threads);
+
+    /**
+     * Get the number of threads that search.
+     */
+    int getThreads();
+
+    /**
+     * Forget the results of every earlier search.
+     */
+    void clear();
+
+    /**
+     * Stop the search being made (from another thread), which then returns
+     * the best move it has found so far. A search made on a thread that has
+     * been interrupted stops in the same way.
+     */
+    void stop();
+
+    /**
+     * Get the move chosen by the last search (or PASS).
+     */
+    int getBestMove();
+
+    /**
+     * Get the number of positions (or games played out) searched by
+     * the last search (by all threads).
+     */
+    long getNodes();
+
+    /**
+     * Get the time taken by the last search, in milliseconds.
+     */
+    long getTime();
+
+    /**
+     * Get the number of positions (or games played out) searched per
+     * second by the last search.
+     */
+    long getNodesPerSecond();
+
+    /**
+     * Wait for every helper thread of a search to finish. If the thread
+     * waiting is interrupted, it keeps waiting (so that no helper is still
+     * searching once the search has returned), and is interrupted again
+     * once they have all finished.
+     */
+    static void joinHelpers(Thread[] helperThreads)
+    {
+        boolean interrupted = false;
+        for (Thread helperThread : helperThreads) {
+            while (helperThread.isAlive()) {
+                try {
+                    helperThread.join();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * An estimate of how good positions of one board size are, for the
+ * player to move, that keeps what it needs to know about the position
+ * it is attached to up to date as the discs change (rather than looking
+ * at the whole board again for every estimate).
+ *
+ * An evaluator estimates one position at a time; each thread of a search
+ * gets its own copy.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface Evaluator extends BitboardPosition.Listener
+{
+    /**
+     * Get the size of the boards the evaluator estimates
+     * (The board is a size x size grid).
+     */
+    int getSize();
+
+    /**
+     * Start listening to a position (and stop listening to any other).
+     *
+     * @throws  IllegalArgumentException  If the position's board is not of the evaluator's size.
+     */
+    void attach(BitboardPosition position);
+
+    /**
+     * Stop listening to the position.
+     */
+    void detach();
+
+    /**
+     * Estimate the score of the position for the player to move.
+     */
+    int evaluate();
+
+    /**
+     * Create another evaluator with the same weights, to estimate another position.
+     */
+    Evaluator copy();
+}
@@ -1,8 +1,11 @@
-import java.awt.event.*;
+import java.awt.Image;
 import javax.swing.*;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
 * Models a two-player version of the Reversi game on 
@@ -14,11 +17,32 @@ import java.util.HashMap;
  */
 public class Game
 {
+    // static field - The time the computer takes to choose its move (in milliseconds)
+    private static final long COMPUTER_TIME_BUDGET = 1000;
+    
+    // static field - The shortest time between two reports, in the status bar,
+    // of how deep the computer has searched (in milliseconds)
+    private static final long PROGRESS_INTERVAL = 250;
+    
+    // static field - The thread the computer chooses its moves on, away from the
+    // one the window is drawn on (shared by every game, which each stop their
+    // search at once when they are abandoned)
+    private static final ExecutorService COMPUTER_PLAYER_THREAD = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Computer player");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     // static fields - The side of a disc to be placed facing up on the board,
     // depending on the player that is currently playing at any given time
     private static ImageIcon darkDiscSide;
     private static ImageIcon lightDiscSide;
     
+    // static field - The computer player, shared by every game (its searches all
+    // run on the computer player's thread, one after the other), so that its
+    // transposition table is only made once, and a new game starts at once
+    private static AlphaBetaEngine computerPlayer;
+    
     // Which player is currently playing
     private ImageIcon currentPlayer;
     
@@ -37,13 +61,41 @@ public class Game
     // The board
     private Board board;
     
+    // The discs on the board, and whose turn it is to play
+    private Position position;
+    
+    // The squares of the discs flipped by the last move
+    private int[] flippedSquares;
+    
+    // The computer player, which chooses the moves of the
+    // players whose moves are played by the computer
+    // (the one shared by every game)
+    private AlphaBetaEngine engine;
+    
+    // The search for the computer's move being made (or null), and the number of
+    // searches asked for, by which the results of abandoned ones are recognised
+    private Future<?> computerMove;
+    private int computerMoveNumber;
+    
+    // The computer's search of the position while its opponent chooses their move (or null)
+    private Future<?> pondering;
+    
+    // Whether this game has been abandoned (for a new game or a new board)
+    private boolean cancelled;
+    
+    // When the status bar was last asked to show how deep the computer
+    // has searched (set by the computer player's thread)
+    private volatile long lastProgress;
+    
     /**
      * Constructor for objects of class Game
      */
     public Game(Reversi reversi)
     {
-        darkDiscSide = new ImageIcon("disc images/dark disc side.png");
-        lightDiscSide = new ImageIcon("disc images/light disc side.png");
+        if (darkDiscSide == null) {
+            darkDiscSide = new ImageIcon("disc images/dark disc side.png");
+            lightDiscSide = new ImageIcon("disc images/light disc side.png");
+        }
         
         playersThatCannotMove = 0;
         playedButtons = 4;
@@ -52,6 +104,11 @@ public class Game
         
         this.reversi = reversi;
         board = reversi.board;
+        if (computerPlayer == null) {
+            computerPlayer = new AlphaBetaEngine(COMPUTER_TIME_BUDGET);
+            computerPlayer.setThreads(Runtime.getRuntime().availableProcessors());
+        }
+        engine = computerPlayer;
     }
 
     /**
@@ -62,35 +119,59 @@ public class Game
         int boardSize = board.getSize();
         board.setGameStarted(true);
         
-        Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
+        position = Position.create(boardSize);
+        prepareComputerPlayer(boardSize);
+        flippedSquares = new int[boardSize * boardSize];
+        
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j < boardSize; j++) {
-                // if button is any of the four center ones
+                // if tile is any of the four center ones
                     // pre-fill it (in an alternating pattern)
-                // else if any other button
-                    // add action listener that invokes the move() function
+                // else if any other tile
+                    // let it be played on
                 if ((i == (boardSize / 2) - 1 && j == (boardSize / 2) - 1) ||
                     (i == (boardSize / 2) && j == (boardSize / 2))) {
-                    buttonCoordinatesMap[i][j].setImage(lightDiscSide.getImage());
-                    buttonCoordinatesMap[i][j].setEnabled(false);
+                    board.setDisc(i, j, lightDiscSide.getImage());
+                    board.setTileEnabled(i, j, false);
                 }
                 else if ((i == (boardSize / 2) - 1 && j == (boardSize / 2)) ||
                          (i == (boardSize / 2) && j == (boardSize / 2) - 1)) {
-                    buttonCoordinatesMap[i][j].setImage(darkDiscSide.getImage());
-                    buttonCoordinatesMap[i][j].setEnabled(false);
+                    board.setDisc(i, j, darkDiscSide.getImage());
+                    board.setTileEnabled(i, j, false);
                 }
                 else {
-                    buttonCoordinatesMap[i][j].setEnabled(true);
-                    buttonCoordinatesMap[i][j].addActionListener(e -> move((Board.CustomButton) e.getSource()));
+                    board.setTileEnabled(i, j, true);
                 }
             }
         }
+        listenToBoard();
         
         updateFrame(0, 1, "2", "2", "Game started. It is " + reversi.playerNames[0].getText() + "'s turn to play.");
+        showStatistics();
         
-        board.getPanel().addMouseMotionListener(new MouseAdapter() {
+        if (isComputerTurn()) {
+            SwingUtilities.invokeLater(this::playComputerMove);
+        }
+        else {
+            ponder();
+        }
+    }
+    
+    /**
+     * Be told of the tiles of the board that are clicked, and of the mouse
+     * moving off the tiles, in place of any game played on the board before
+     * (the board is kept for the next game of its size).
+     */
+    private void listenToBoard()
+    {
+        board.setTileListener(new Board.TileListener() {
             @Override
-            public void mouseMoved(MouseEvent e) {
+            public void tileClicked(int row, int col) {
+                Game.this.tileClicked(row, col);
+            }
+            
+            @Override
+            public void mouseMovedOffTiles() {
                 if (board.isGameStarted()) {
                     if (currentPlayer == darkDiscSide) {
                         reversi.statusBarMessage.setText(reversi.playerNames[0].getText() + " is playing...");
@@ -103,36 +184,241 @@ public class Game
         });
     }
     
+    /**
+     * Give the computer player the opening book and the evaluation for the
+     * board size, on its own thread, so that it is not changed under a search
+     * of an abandoned game that has yet to stop (nor reads files on the thread
+     * the window is drawn on).
+     */
+    private void prepareComputerPlayer(int boardSize)
+    {
+        COMPUTER_PLAYER_THREAD.execute(() -> {
+            engine.setOpeningBook(OpeningBook.forSize(boardSize));
+            engine.setEvaluator(PatternEvaluator.forSize(boardSize));
+        });
+    }
+    
+    /**
+     * Play the current player's move on the tile of the board that was clicked
+     * (unless the computer plays the current player's moves).
+     */
+    private void tileClicked(int row, int col)
+    {
+        if (! isComputerTurn()) {
+            play(row, col);
+        }
+    }
+    
+    /**
+     * Let the computer choose the current player's move, on its own thread, so
+     * that the window keeps responding while it searches. The move is played
+     * (see below) once it has been chosen, unless this game has been abandoned.
+     */
+    private void playComputerMove()
+    {
+        if (cancelled || computerMove != null || ! board.isGameStarted() || ! isComputerTurn()) {
+            return;
+        }
+        
+        int number = ++computerMoveNumber;
+        Position searchedPosition = position.copy();
+        int boardSize = searchedPosition.getSize();
+        String name = (currentPlayer == darkDiscSide) ? reversi.playerNames[0].getText() : reversi.playerNames[1].getText();
+        computerMove = COMPUTER_PLAYER_THREAD.submit(() -> {
+            engine.setListener((depth, score, line, length) -> showProgress(number, name, boardSize, depth, score, line, length));
+            int move = engine.search(searchedPosition);
+            String note = describeSearch();
+            SwingUtilities.invokeLater(() -> playComputerMove(number, move, note));
+        });
+    }
+    
+    /**
+     * Let the computer search the position, on its own thread, while the
+     * human player to move chooses their move (if the computer plays their
+     * opponent's moves, and thinking on the opponent's time is switched on),
+     * so that it can answer it sooner.
+     */
+    private void ponder()
+    {
+        boolean opponentIsComputer = (currentPlayer == darkDiscSide) ? reversi.computerPlayers[1].isSelected() 
+                                                                     : reversi.computerPlayers[0].isSelected();
+        if (cancelled || pondering != null || ! board.isGameStarted() || isComputerTurn() || ! opponentIsComputer
+            || ! reversi.pondering.isSelected() || ! canMove()) {
+            return;
+        }
+        
+        Position ponderedPosition = position.copy();
+        pondering = COMPUTER_PLAYER_THREAD.submit(() -> {
+            engine.setListener(null);
+            engine.ponder(ponderedPosition);
+        });
+    }
+    
+    /**
+     * Stop the computer's search of the position while its opponent
+     * chooses their move, if it is making one. The engine is stopped first,
+     * and the search's thread is then interrupted as well, in case the search
+     * had yet to start (and would otherwise forget it had been stopped). The
+     * engine waits for all its helper threads to finish before the search
+     * returns, even when interrupted, so none of them is left searching.
+     */
+    public void stopPondering()
+    {
+        if (pondering != null) {
+            engine.stop();
+            pondering.cancel(true);
+            pondering = null;
+        }
+    }
+    
+    /**
+     * Play the move the computer chose (on the thread the window is drawn on),
+     * and show how deep it searched, and how fast, in the status bar.
+     */
+    private void playComputerMove(int number, int move, String note)
+    {
+        if (cancelled || number != computerMoveNumber) {
+            return;
+        }
+        
+        computerMove = null;
+        if (move == Position.PASS) {
+            return;
+        }
+        
+        int boardSize = board.getSize();
+        play(move / boardSize, move % boardSize);
+        
+        if (board.isGameStarted()) {
+            reversi.statusBarMessage.setText(reversi.statusBarMessage.getText() + " " + note);
+        }
+    }
+    
+    /**
+     * Describe how the computer chose its last move: from its opening book,
+     * by solving the rest of the game, or by searching a number of turns ahead.
+     * (This method is invoked on the computer player's thread.)
+     */
+    private String describeSearch()
+    {
+        if (engine.isFromBook()) {
+            return "(The computer played a move from its opening book.)";
+        }
+        else if (engine.isSolved()) {
+            return "(The computer solved the rest of the game, at " + engine.getNodesPerSecond() + " positions per second.)";
+        }
+        
+        return "(The computer searched " + engine.getDepth() + " turns ahead, at " + 
+               engine.getNodesPerSecond() + " positions per second.)";
+    }
+    
+    /**
+     * Show in the status bar how deep the computer has searched so far, what it
+     * expects the move it would play to lead to, and the moves it expects to follow,
+     * at most once every PROGRESS_INTERVAL milliseconds.
+     * (This method is invoked on the computer player's thread, so it is given
+     * the size of the board searched, rather than reading this game's position.)
+     */
+    private void showProgress(int number, String name, int boardSize, int depth, int score, int[] line, int length)
+    {
+        long now = System.nanoTime();
+        if (now - lastProgress < PROGRESS_INTERVAL * 1000000L) {
+            return;
+        }
+        lastProgress = now;
+        
+        StringBuilder moves = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            moves.append(' ').append((char) ('a' + line[i] % boardSize)).append(line[i] / boardSize + 1);
+        }
+        
+        String expectation;
+        if (score >= AlphaBetaEngine.WIN_SCORE) {
+            expectation = "a win by " + (score - AlphaBetaEngine.WIN_SCORE) + " discs";
+        }
+        else if (score <= -AlphaBetaEngine.WIN_SCORE) {
+            expectation = "a loss by " + (-AlphaBetaEngine.WIN_SCORE - score) + " discs";
+        }
+        else {
+            expectation = "a score of " + score;
+        }
+        
+        String message = name + " (the computer) is thinking: " + depth + " turns ahead, expecting " + 
+                         expectation + " after" + moves + ".";
+        SwingUtilities.invokeLater(() -> {
+            if (! cancelled && number == computerMoveNumber) {
+                reversi.statusBarMessage.setText(message);
+            }
+        });
+    }
+    
+    /**
+     * Abandon this game (when a new game is started, or the board is replaced),
+     * stopping the computer's search for its move at once, if it is making one.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        computerMoveNumber++;
+        stopPondering();
+        // (The search is stopped as pondering is, above)
+        if (computerMove != null) {
+            engine.stop();
+            computerMove.cancel(true);
+            computerMove = null;
+        }
+    }
+    
+    /**
+     * Check if the computer plays the current player's moves.
+     */
+    private boolean isComputerTurn()
+    {
+        if (currentPlayer == darkDiscSide) {
+            return reversi.computerPlayers[0].isSelected();
+        }
+        
+        return reversi.computerPlayers[1].isSelected();
+    }
+    
     /**
      * Carry out the processing related to making
      * a move at a specific coordinate of the board.
      */
-    private void move(Board.CustomButton button)
+    public void play(int row, int col)
     {
-        if (moveIsLegal(button, true)) {
-            int captures = capture(button);
-            button.setEnabled(false);
+        if (moveIsLegal(row, col, true)) {
+            stopPondering();
+            capture(row, col);
+            board.setTileEnabled(row, col, false);
             if (currentPlayer == darkDiscSide) {
-                button.setImage(darkDiscSide.getImage());
+                board.setDisc(row, col, darkDiscSide.getImage());
                 currentPlayer = lightDiscSide;
                 updateFrame(0, 1,
-                            String.valueOf(Integer.parseInt(reversi.playersNumberOfDiscs[0].getText()) + captures + 1),
-                            String.valueOf(Integer.parseInt(reversi.playersNumberOfDiscs[1].getText()) - captures),
+                            String.valueOf(position.countDiscs(Position.BLACK)),
+                            String.valueOf(position.countDiscs(Position.WHITE)),
                             reversi.playerNames[0].getText() + " has played. It is now  " +
                             reversi.playerNames[1].getText() + "'s turn to play.");
             }
             else if (currentPlayer == lightDiscSide) {
-                button.setImage(lightDiscSide.getImage());
+                board.setDisc(row, col, lightDiscSide.getImage());
                 currentPlayer = darkDiscSide;
                 updateFrame(1, 0,
-                            String.valueOf(Integer.parseInt(reversi.playersNumberOfDiscs[1].getText()) + captures + 1),
-                            String.valueOf(Integer.parseInt(reversi.playersNumberOfDiscs[0].getText()) - captures),
+                            String.valueOf(position.countDiscs(Position.WHITE)),
+                            String.valueOf(position.countDiscs(Position.BLACK)),
                             reversi.playerNames[1].getText() + " has played. It is now  " +
                             reversi.playerNames[0].getText() + "'s turn to play.");
             }
             playedButtons++;
         }
         
+        showStatistics();
+        
+        // The tiles the move changed are painted together with the score panels,
+        // the status bar and the statistics panel (which were updated above),
+        // in a single pass, before any dialog below is shown
+        board.commitChanges();
+        
         int boardSize = board.getSize();
         if (! canMove() && playedButtons < (boardSize * boardSize)) {
             String name = "";
@@ -143,17 +429,20 @@ public class Game
                 name = reversi.playerNames[1].getText();
             }
             
+            // The computer passes without being asked to
             Object[] options = {"Pass"};
-            int choice = JOptionPane.showOptionDialog(reversi.frame,
-                                                      "You are not able to make any legal moves, " + name +
-                                                      ". Click on the \n'Pass' button below to pass your turn.",
-                                                      "Pass Your Turn",
-                                                      JOptionPane.YES_NO_OPTION,
-                                                      JOptionPane.INFORMATION_MESSAGE,
-                                                      null,
-                                                      options, 
-                                                      options[0]);
+            int choice = isComputerTurn() ? 0 : JOptionPane.showOptionDialog(reversi.frame,
+                                                                             "You are not able to make any legal moves, " + name +
+                                                                             ". Click on the \n'Pass' button below to pass your turn.",
+                                                                             "Pass Your Turn",
+                                                                             JOptionPane.YES_NO_OPTION,
+                                                                             JOptionPane.INFORMATION_MESSAGE,
+                                                                             null,
+                                                                             options, 
+                                                                             options[0]);
             if (choice == 0){
+                position.pass();
+                
                 if (currentPlayer == darkDiscSide) {
                     playersThatCannotMove++;
                     currentPlayer = lightDiscSide;
@@ -184,8 +473,8 @@ public class Game
             else {
                 reversi.statusBarMessage.setText("Game has ended, because neither player could make a legal move.");
             }
-            int player1NumberOfDiscs = Integer.parseInt(reversi.playersNumberOfDiscs[0].getText());
-            int player2NumberOfDiscs = Integer.parseInt(reversi.playersNumberOfDiscs[1].getText());
+            int player1NumberOfDiscs = position.countDiscs(Position.BLACK);
+            int player2NumberOfDiscs = position.countDiscs(Position.WHITE);
             
             reversi.playerScores[0].setText(String.valueOf(Integer.parseInt(reversi.playerScores[0].getText()) +  player1NumberOfDiscs));
             reversi.playerScores[1].setText(String.valueOf(Integer.parseInt(reversi.playerScores[1].getText()) +  player2NumberOfDiscs));
@@ -215,308 +504,46 @@ public class Game
                                                       options[0]);
             if (choice == 0 || choice == -1){
                 board.setGameStarted(false);
-                Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
                 
                 for (int i = 0; i < boardSize; i++) {
                     for (int j = 0; j < boardSize; j++) {
-                        if (buttonCoordinatesMap[i][j].getImage() == null) {
-                            buttonCoordinatesMap[i][j].setEnabled(false);
+                        if (board.getDisc(i, j) == null) {
+                            board.setTileEnabled(i, j, false);
                         }
                     }
                 }
                 reversi.startButtonPanel.setVisible(true);
             }
         }
+        
+        if (board.isGameStarted() && isComputerTurn()) {
+            SwingUtilities.invokeLater(this::playComputerMove);
+        }
+        else {
+            ponder();
+        }
     }
     
     /**
-     * Capture pieces starting from the x and y position of the current element in the board
-     * by looking into the eight possible directions to find another piece of the current player 
-     * (skipping pieces of the opponent). If such a piece is found, then it flips all skipped pieces.
-     * (This method is invoked by the move method before the current player is changed.)
+     * Capture pieces by playing the current player's move on a tile of the board,
+     * flipping every run of the opponent's pieces that the move closes in any of the eight
+     * directions, and show the flipped pieces on their tiles (which are painted
+     * again together, when the move is committed).
+     * (This method is invoked by the play method before the current player is changed.)
      */
-    private int capture(Board.CustomButton button)
+    private int capture(int row, int col)
     {
-        int captures = 0;
         int boardSize = board.getSize();
-        Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
-        
-        capturing:
-        for (int  i = 0;  i < boardSize; i++) {
-            for (int  j = 0;  j < boardSize; j++) {
-                if (buttonCoordinatesMap[i][j] == button) {
-                    // north direction
-                    int x = j;
-                    int y = i;
-                    
-                    while ((y - 1 >=  0) && buttonCoordinatesMap[y - 1][x].getImage() != null) {
-                        y--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][x].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][x].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // north-east direction
-                    x = j;
-                    y = i;
-                    while ((x + 1 < boardSize) && (y - 1 >= 0) && buttonCoordinatesMap[y - 1][x + 1].getImage() != null) {
-                        y--;
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // east direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x + 1 < boardSize) && buttonCoordinatesMap[y][x + 1].getImage() != null) {
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int l = (j + 1); l < x ; l++) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[y][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int l = (j + 1); l < x ; l++) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[y][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south-east direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x + 1 < boardSize) && (y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x + 1].getImage() != null) {
-                        y++;
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south direction
-                    x = j;
-                    y = i;
-                    
-                    while ((y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x].getImage() != null) {
-                        y++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][x].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][x].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south-west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && (y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x - 1].getImage() != null) {
-                        y++;
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && buttonCoordinatesMap[y][x - 1].getImage() != null) {
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int l = (j - 1); l > x ; l--) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[y][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int l = (j - 1); l > x ; l--) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[y][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // north-west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && (y - 1 >= 0) && buttonCoordinatesMap[y - 1][x - 1].getImage() != null) {
-                        y--;
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(darkDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        buttonCoordinatesMap[k][l].setImage(lightDiscSide.getImage());
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                
-                    break capturing;
-                }
-            }
+        
+        int captures = position.play(row, col);
+        position.getFlipped(flippedSquares);
+        
+        Image disc = currentPlayer.getImage();
+        for (int k = 0; k < captures; k++) {
+            int square = flippedSquares[k];
+            board.setDisc(square / boardSize, square % boardSize, disc);
         }
-
+        
         return captures;
     }
     
@@ -526,305 +553,52 @@ public class Game
      * only if it would capture at least one of the opponent's
      * pieces.
      */
-    private boolean moveIsLegal(Board.CustomButton button, boolean showStatus)
+    private boolean moveIsLegal(int row, int col, boolean showStatus)
     {
-        boolean isLegal = false;
-        int captures = 0;
-        int boardSize = board.getSize();
-        Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
-        
-        checkCapturing:
-        for (int  i = 0;  i < boardSize; i++) {
-            for (int  j = 0;  j < boardSize; j++) {
-                if (buttonCoordinatesMap[i][j] == button) {
-                    // north direction
-                    int x = j;
-                    int y = i;
-                    
-                    while ((y - 1 >=  0) && buttonCoordinatesMap[y - 1][x].getImage() != null) {
-                        y--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // north-east direction
-                    x = j;
-                    y = i;
-                    while ((x + 1 < boardSize) && (y - 1 >= 0) && buttonCoordinatesMap[y - 1][x + 1].getImage() != null) {
-                        y--;
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // east direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x + 1 < boardSize) && buttonCoordinatesMap[y][x + 1].getImage() != null) {
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int l = (j + 1); l < x ; l++) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int l = (j + 1); l < x ; l++) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south-east direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x + 1 < boardSize) && (y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x + 1].getImage() != null) {
-                        y++;
-                        x++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j + 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l++;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south direction
-                    x = j;
-                    y = i;
-                    
-                    while ((y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x].getImage() != null) {
-                        y++;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][x].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // south-west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && (y + 1 < boardSize) && buttonCoordinatesMap[y + 1][x - 1].getImage() != null) {
-                        y++;
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i + 1); k < y ; k++) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && buttonCoordinatesMap[y][x - 1].getImage() != null) {
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                for (int l = (j - 1); l > x ; l--) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                for (int l = (j - 1); l > x ; l--) {
-                                    if (buttonCoordinatesMap[y][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                }
-                                break;
-                            }
-                        }
-                    }
-                    
-                    // north-west direction
-                    x = j;
-                    y = i;
-                    
-                    while ((x - 1 >= 0) && (y - 1 >= 0) && buttonCoordinatesMap[y - 1][x - 1].getImage() != null) {
-                        y--;
-                        x--;
-                        
-                        if (currentPlayer == darkDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == darkDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == lightDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            if (buttonCoordinatesMap[y][x].getImage() == lightDiscSide.getImage()) {
-                                int l = j - 1;
-                                for (int k = (i - 1); k > y ; k--) {
-                                    if (buttonCoordinatesMap[k][l].getImage() == darkDiscSide.getImage()) {
-                                        captures++;
-                                    }
-                                    l--;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                
-                    break checkCapturing;
-                }
-            }
-        }
-
-        if (captures == 0) {
-            if (showStatus) {
-                reversi.statusBarMessage.setText("Illegal move. A legal move would capture at least one of your opponent's pieces.");
-            }
-        }
-        else if (captures > 0) {
-            isLegal = true;
+        boolean isLegal = isLegal(row, col);
+        
+        if (! isLegal && showStatus) {
+            reversi.statusBarMessage.setText("Illegal move. A legal move would capture at least one of your opponent's pieces.");
         }
         
         return isLegal;
     }
     
     /**
-     * 	Check based on the isMoveLegal method if
+     * 	Check based on the position of the discs if
      * 	the current player can make a valid move.
      */
     private boolean canMove()
     {
-        int boardSize = board.getSize();
-        Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
-        
-        for (int i = 0; i < boardSize; i++) {
-            for (int j = 0; j < boardSize; j++) {
-                if (buttonCoordinatesMap[i][j].getImage() == null) {
-                    if (moveIsLegal(buttonCoordinatesMap[i][j], false)) {
-                        return true;
-                    }
-                }
-            }
+        return position.canMove();
+    }
+    
+    /**
+     * Check if playing on a specific coordinate of the board
+     * would be a legal move for the current player.
+     */
+    public boolean isLegal(int row, int col)
+    {
+        return position.isLegal(row, col);
+    }
+    
+    /**
+     * Show how many moves, stable discs and frontier discs each player
+     * has in the statistics panel, if it is shown. (They are counted
+     * from the bitboards of the position after every turn.)
+     */
+    public void showStatistics()
+    {
+        if (position == null || ! reversi.statisticsPanel.isVisible()) {
+            return;
         }
         
-        return false;
+        int[] colours = {Position.BLACK, Position.WHITE};
+        for (int i = 0; i < 2; i++) {
+            reversi.positionStatistics[0][i].setText(String.valueOf(position.countLegalMoves(colours[i])));
+            reversi.positionStatistics[1][i].setText(String.valueOf(position.countStableDiscs(colours[i])));
+            reversi.positionStatistics[2][i].setText(String.valueOf(position.countFrontierDiscs(colours[i])));
+        }
     }
     
     /**
@@ -847,19 +621,18 @@ public class Game
         HashMap<String, Object> stateData = new HashMap<>();
         
         int boardSize = board.getSize();
-        Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
         String[][] buttonsState = new String[boardSize][boardSize];
         
         for (int i = 0; i < boardSize; i++) {
             for (int j = 0; j < boardSize; j++) {
-                if (buttonCoordinatesMap[i][j].getImage() == null) {
+                if (board.getDisc(i, j) == null) {
                     buttonsState[i][j] = "empty";
                 }
-                else if (buttonCoordinatesMap[i][j].getImage() != null) {
-                    if (buttonCoordinatesMap[i][j].getImage() == darkDiscSide.getImage()) {
+                else if (board.getDisc(i, j) != null) {
+                    if (board.getDisc(i, j) == darkDiscSide.getImage()) {
                         buttonsState[i][j] = "black";
                     }
-                    else if (buttonCoordinatesMap[i][j].getImage() == lightDiscSide.getImage()) {
+                    else if (board.getDisc(i, j) == lightDiscSide.getImage()) {
                         buttonsState[i][j] = "white";
                     }
                 }
@@ -876,6 +649,7 @@ public class Game
         }
         
         stateData.put("Player Names", reversi.playerNames);
+        stateData.put("Computer Players", reversi.computerPlayers);
         stateData.put("Player Scores", reversi.playerScores);
         stateData.put("Players' Number Of Discs", reversi.playersNumberOfDiscs);
         stateData.put("Game Started", board.isGameStarted());
@@ -909,6 +683,7 @@ public class Game
             JTextField[] restoredPlayerNames = (JTextField[]) restoredStateData.get("Player Names");
             JLabel[] restoredPlayerScores = (JLabel[]) restoredStateData.get("Player Scores");
             JLabel[] restoredPlayersNumberOfDiscs = (JLabel[]) restoredStateData.get("Players' Number Of Discs");
+            JCheckBox[] restoredComputerPlayers = (JCheckBox[]) restoredStateData.get("Computer Players");
             
             for (int i = 0; i < 2; i++) {
                 if (! restoredPlayerNames[i].isEditable()) {
@@ -916,6 +691,12 @@ public class Game
                     reversi.playerNames[i].setEditable(false);
                 }
                 
+                // (Sessions saved before the computer could play have no computer players)
+                if (restoredComputerPlayers != null) {
+                    reversi.computerPlayers[i].setSelected(restoredComputerPlayers[i].isSelected());
+                    reversi.computerPlayers[i].setEnabled(restoredComputerPlayers[i].isEnabled());
+                }
+                
                 reversi.playerScores[i].setText(restoredPlayerScores[i].getText());
                 reversi.playersNumberOfDiscs[i].setText(restoredPlayersNumberOfDiscs[i].getText());
             }
@@ -935,25 +716,32 @@ public class Game
             
             board.setGameStarted((boolean) restoredStateData.get("Game Started"));
             
-            Board.CustomButton[][] buttonCoordinatesMap = board.getButtonCoordinatesMap();
+            position = Position.createEmpty(boardSize, currentPlayer == darkDiscSide ? Position.BLACK : Position.WHITE);
+            prepareComputerPlayer(boardSize);
+            flippedSquares = new int[boardSize * boardSize];
+            
             for (int i = 0; i < boardSize; i++) {
                 for (int j = 0; j < boardSize; j++) {
                     if (buttonsState[i][j].equals("empty")) {
-                        buttonCoordinatesMap[i][j].setEnabled(true);
-                        buttonCoordinatesMap[i][j].addActionListener(e -> move((Board.CustomButton) e.getSource()));
+                        board.setTileEnabled(i, j, true);
                     }
                     else if (buttonsState[i][j].equals("black")) {
-                        buttonCoordinatesMap[i][j].setImage(darkDiscSide.getImage());
-                        buttonCoordinatesMap[i][j].setEnabled(false);
+                        board.setDisc(i, j, darkDiscSide.getImage());
+                        board.setTileEnabled(i, j, false);
+                        position.setDisc(i, j, Position.BLACK);
                         playedButtons++;
                     }
                     else if (buttonsState[i][j].equals("white")) {
-                        buttonCoordinatesMap[i][j].setImage(lightDiscSide.getImage());
-                        buttonCoordinatesMap[i][j].setEnabled(false);
+                        board.setDisc(i, j, lightDiscSide.getImage());
+                        board.setTileEnabled(i, j, false);
+                        position.setDisc(i, j, Position.WHITE);
                         playedButtons++;
                     }
                 }
             }
+            listenToBoard();
+            
+            showStatistics();
             
             if (! board.isGameStarted()) {
                 String winner = (String) restoredStateData.get("Winner");
@@ -973,19 +761,12 @@ public class Game
                 }
             }
             
-            board.getPanel().addMouseMotionListener(new MouseAdapter() {
-                @Override
-                public void mouseMoved(MouseEvent e) {
-                    if (board.isGameStarted()) {
-                        if (currentPlayer == darkDiscSide) {
-                            reversi.statusBarMessage.setText(reversi.playerNames[0].getText() + " is playing...");
-                        }
-                        else if (currentPlayer == lightDiscSide) {
-                            reversi.statusBarMessage.setText(reversi.playerNames[1].getText() + " is playing...");
-                        }
-                    }
-                }
-            });
+            if (board.isGameStarted() && isComputerTurn()) {
+                SwingUtilities.invokeLater(this::playComputerMove);
+            }
+            else {
+                ponder();
+            }
         }
         catch (Exception e) {
             throw new CorruptedSaveFileException();
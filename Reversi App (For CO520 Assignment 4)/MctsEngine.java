@@ -0,0 +1,470 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A computer player that chooses its moves by Monte Carlo tree search
+ * (UCT): it plays many quick games out from the current position, and
+ * grows a tree of the positions they go through, steering later games
+ * towards the moves that have won most often so far, while still trying
+ * the others now and then. The move played is the one tried most often.
+ * Unlike alpha-beta search, it needs no estimate of how good a position
+ * is, and it still chooses sensible moves on large boards, where too few
+ * turns can be searched ahead for alpha-beta to be of much use.
+ *
+ * The games are played out with a light policy: a corner whenever one can
+ * be taken, and otherwise a random legal move.
+ *
+ * The tree is kept in a pool of nodes made of arrays of ints and shorts
+ * (one element per node), so that a tree of millions of nodes is a handful
+ * of objects, created once, for the garbage collector to look after.
+ *
+ * Several threads can grow the same tree ("tree parallelism"). A thread
+ * going down the tree counts a few lost games in every node it passes
+ * ("virtual loss"), which it takes back once its game is over, so that
+ * the other threads are steered towards other lines in the meantime.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class MctsEngine implements Engine
+{
+    // The number of nodes in the pool, by default (about 18 bytes each)
+    public static final int DEFAULT_NODES = 1 << 22;
+
+    // How much trying moves that have been tried less often
+    // is favoured over trying those that have won most often
+    private static final double EXPLORATION = 0.7;
+
+    // The number of lost games counted in a node while a thread's game passes through it
+    private static final int VIRTUAL_LOSS = 3;
+
+    // The number of games played out between two looks at the clock
+    // (a power of two)
+    private static final int CLOCK_INTERVAL = 64;
+
+    // The number of children of a node that has not been expanded yet,
+    // and of one being expanded by a thread
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+
+    // static fields - Access to the elements of the int arrays of the pool
+    // that are changed by several threads at once
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // The time allowed for a move, in nanoseconds
+    private final long timeBudget;
+
+    // The number of threads that search
+    private int threads;
+
+    // The pool of nodes: for every node, the move that leads to it (or PASS),
+    // the first of its children (which are next to each other in the pool),
+    // the number of its children (or UNEXPANDED, or EXPANDING), the number of
+    // games played through it, and the half-points they won for the player who
+    // made its move (2 per game won, 1 per game drawn)
+    private final short[] moves;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] visits;
+    private final int[] wins;
+
+    // The next node of the pool not in use, and whether the pool is full
+    private final AtomicInteger nextFree;
+    private volatile boolean full;
+
+    // When the search must stop, and whether it has
+    private long deadline;
+    private volatile boolean stopped;
+
+    // The result of the last search: the move chosen, the share of the games
+    // through it that it won, the number of games played out, and the time taken (in nanoseconds)
+    private int bestMove;
+    private double winRate;
+    private long nodes;
+    private long time;
+
+    /**
+     * Create a computer player that takes (about) a number of milliseconds to move.
+     */
+    public MctsEngine(long timeBudget)
+    {
+        this(timeBudget, DEFAULT_NODES);
+    }
+
+    /**
+     * Create a computer player that takes (about) a number of milliseconds to move,
+     * with room for a number of nodes in its tree.
+     */
+    public MctsEngine(long timeBudget, int poolSize)
+    {
+        if (timeBudget <= 0) {
+            throw new IllegalArgumentException("The time allowed for a move must be positive.");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("The tree must have room for at least one node.");
+        }
+
+        this.timeBudget = timeBudget * 1000000L;
+        threads = 1;
+        moves = new short[poolSize];
+        firstChild = new int[poolSize];
+        childCount = new int[poolSize];
+        visits = new int[poolSize];
+        wins = new int[poolSize];
+        nextFree = new AtomicInteger();
+        bestMove = Position.PASS;
+    }
+
+    @Override
+    public void setThreads(int threads)
+    {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread must search.");
+        }
+
+        this.threads = threads;
+    }
+
+    @Override
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    @Override
+    public void clear()
+    {
+        // Every search grows a new tree
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+    }
+
+    @Override
+    public int search(Position position)
+    {
+        long start = System.nanoTime();
+        deadline = start + timeBudget;
+        stopped = Thread.currentThread().isInterrupted();
+        nodes = 0;
+        winRate = 0;
+
+        // The root is expanded before any thread starts
+        nextFree.set(1);
+        full = false;
+        moves[0] = Position.PASS;
+        childCount[0] = UNEXPANDED;
+        visits[0] = 0;
+        wins[0] = 0;
+        Worker main = new Worker(position.copy(), 0);
+        main.expand(0);
+        bestMove = (childCount[0] > 0) ? moves[firstChild[0]] : Position.PASS;
+
+        // With one move (or none) there is nothing to choose
+        if (childCount[0] > 1) {
+            Worker[] helpers = new Worker[threads - 1];
+            Thread[] helperThreads = new Thread[threads - 1];
+            for (int i = 0; i < helpers.length; i++) {
+                helpers[i] = new Worker(position.copy(), i + 1);
+                helperThreads[i] = new Thread(helpers[i], "Search helper " + (i + 1));
+                helperThreads[i].setDaemon(true);
+                helperThreads[i].start();
+            }
+
+            main.run();
+            stopped = true;
+            nodes = main.playouts;
+            Engine.joinHelpers(helperThreads);
+            for (Worker helper : helpers) {
+                nodes += helper.playouts;
+            }
+
+            // Play the move tried most often
+            int best = firstChild[0];
+            for (int child = firstChild[0] + 1; child < firstChild[0] + childCount[0]; child++) {
+                if (visits[child] > visits[best]) {
+                    best = child;
+                }
+            }
+            bestMove = moves[best];
+            winRate = (visits[best] == 0) ? 0 : wins[best] / (2.0 * visits[best]);
+        }
+
+        time = System.nanoTime() - start;
+        return bestMove;
+    }
+
+    @Override
+    public int getBestMove()
+    {
+        return bestMove;
+    }
+
+    /**
+     * Get the share of the games played through the move chosen by the
+     * last search that were won (between 0 and 1, draws counting half).
+     */
+    public double getWinRate()
+    {
+        return winRate;
+    }
+
+    /**
+     * Get the number of nodes in the tree grown by the last search.
+     */
+    public int getTreeSize()
+    {
+        return Math.min(nextFree.get(), moves.length);
+    }
+
+    @Override
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    @Override
+    public long getTime()
+    {
+        return time / 1000000L;
+    }
+
+    @Override
+    public long getNodesPerSecond()
+    {
+        return (time == 0) ? 0 : nodes * 1000000000L / time;
+    }
+
+    // ---- Inner class ----
+
+    /**
+     * One of the threads of a search, which plays games out on its own copy
+     * of the root position, and adds what it finds to the shared tree.
+     */
+    private class Worker implements Runnable
+    {
+        // The position the games are played on, and the squares that can be played on
+        private final Position position;
+        private final int[] squares;
+
+        // The nodes of the tree the current game went through, and
+        // the colour of the player who made the move of each of them
+        private final int[] path;
+        private final int[] movers;
+
+        // The state of the random number generator (xorshift)
+        private long random;
+
+        // The number of games played out
+        private long playouts;
+
+        /**
+         * Create a worker that plays games out on a position.
+         */
+        public Worker(Position position, int number)
+        {
+            this.position = position;
+            int size = position.getSize();
+            squares = new int[size * size];
+            path = new int[2 * size * size + 1];
+            movers = new int[path.length];
+            random = 0x9E3779B97F4A7C15L * (number + 1);
+        }
+
+        /**
+         * Play games out until the search is stopped, or
+         * (for every thread) until the time runs out.
+         */
+        @Override
+        public void run()
+        {
+            while (! stopped) {
+                playOut();
+                playouts++;
+                if ((playouts & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline) {
+                    stopped = true;
+                }
+            }
+        }
+
+        /**
+         * Play one game out: go down the tree from the root, choosing the child
+         * with the best upper confidence bound at every node, expand the node
+         * reached and move to one of its children, play the rest of the game
+         * with the light policy, and add its result to every node on the way.
+         */
+        private void playOut()
+        {
+            int node = 0;
+            int depth = 0;
+            path[0] = 0;
+            INTS.getAndAdd(visits, 0, VIRTUAL_LOSS);
+
+            boolean expanded = false;
+            while (! expanded) {
+                int children = (int) INTS.getAcquire(childCount, node);
+                if (children == UNEXPANDED && expand(node)) {
+                    // The game is played out from one of the new children
+                    children = childCount[node];
+                    expanded = true;
+                }
+                if (children <= 0) {
+                    break;
+                }
+
+                int child = select(node, children);
+                int move = moves[child];
+                movers[depth + 1] = position.getSideToMove();
+                if (move == Position.PASS) {
+                    position.pass();
+                }
+                else {
+                    position.play(move);
+                }
+                INTS.getAndAdd(visits, child, VIRTUAL_LOSS);
+                path[++depth] = child;
+                node = child;
+            }
+
+            int turns = depth + finishGame();
+            int discDifference = position.countDiscs(Position.BLACK) - position.countDiscs(Position.WHITE);
+            for (int i = 0; i < turns; i++) {
+                position.undo();
+            }
+
+            // Replace the virtual loss by the result of the game
+            for (int i = depth; i >= 0; i--) {
+                int result = 1;
+                if (discDifference != 0) {
+                    result = ((discDifference > 0) == (movers[i] == Position.BLACK)) ? 2 : 0;
+                }
+                INTS.getAndAdd(wins, path[i], result);
+                INTS.getAndAdd(visits, path[i], 1 - VIRTUAL_LOSS);
+            }
+        }
+
+        /**
+         * Choose the child of a node with the best upper confidence bound: the
+         * share of its games won, plus a bonus for being tried less often than
+         * its brothers. A child that has not been tried yet is chosen at once.
+         */
+        private int select(int node, int children)
+        {
+            int first = firstChild[node];
+            double logVisits = Math.log(Math.max(1, (int) INTS.getOpaque(visits, node)));
+            int best = first;
+            double bestBound = -1;
+            for (int child = first; child < first + children; child++) {
+                int childVisits = (int) INTS.getOpaque(visits, child);
+                if (childVisits == 0) {
+                    return child;
+                }
+
+                double bound = (int) INTS.getOpaque(wins, child) / (2.0 * childVisits)
+                               + EXPLORATION * Math.sqrt(logVisits / childVisits);
+                if (bound > bestBound) {
+                    bestBound = bound;
+                    best = child;
+                }
+            }
+
+            return best;
+        }
+
+        /**
+         * Add the children of a node (the position this worker is on) to the
+         * tree: one per legal move, a pass if there is none, and none if the
+         * game is over.
+         *
+         * @return Whether this thread expanded the node (false if another one is
+         *         expanding it, or if the pool is full).
+         */
+        public boolean expand(int node)
+        {
+            if (full || ! INTS.compareAndSet(childCount, node, UNEXPANDED, EXPANDING)) {
+                return false;
+            }
+
+            int count = position.getLegalMoves(squares);
+            int children = count;
+            if (count == 0) {
+                // The player to move passes, unless the game is over
+                children = position.canMove(1 - position.getSideToMove()) ? 1 : 0;
+                squares[0] = Position.PASS;
+            }
+
+            int first = nextFree.getAndAdd(children);
+            if (first < 0 || first + children > moves.length) {
+                full = true;
+                INTS.setRelease(childCount, node, UNEXPANDED);
+                return false;
+            }
+
+            for (int i = 0; i < children; i++) {
+                int child = first + i;
+                moves[child] = (short) squares[i];
+                childCount[child] = UNEXPANDED;
+                visits[child] = 0;
+                wins[child] = 0;
+            }
+            firstChild[node] = first;
+            INTS.setRelease(childCount, node, children);
+            return true;
+        }
+
+        /**
+         * Play the rest of the game with the light policy:
+         * a corner if one can be taken, otherwise a random move.
+         *
+         * @return The number of turns taken (passes included).
+         */
+        private int finishGame()
+        {
+            int size = position.getSize();
+            int last = size * size - 1;
+            int turns = 0;
+            boolean passed = false;
+            while (true) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    if (passed) {
+                        // Neither player can move: the game is over (and
+                        // the pass that showed it is taken back)
+                        position.undo();
+                        return turns - 1;
+                    }
+                    position.pass();
+                    passed = true;
+                }
+                else {
+                    int move = squares[nextRandom(count)];
+                    for (int i = 0; i < count; i++) {
+                        int square = squares[i];
+                        if (square == 0 || square == size - 1 || square == last - (size - 1) || square == last) {
+                            move = square;
+                            break;
+                        }
+                    }
+                    position.play(move);
+                    passed = false;
+                }
+                turns++;
+            }
+        }
+
+        /**
+         * Get a random number between 0 (included) and a bound (excluded).
+         */
+        private int nextRandom(int bound)
+        {
+            random ^= random << 13;
+            random ^= random >>> 7;
+            random ^= random << 17;
+            return (int) ((random >>> 33) % bound);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * An estimate of how good an 8 x 8 position is, by a small neural network
+ * (see NeuralNetwork), computed on the processor without creating objects.
+ *
+ * The evaluator listens to the BitboardPosition it is attached to, and
+ * keeps the sums of the network's first layer up to date as each disc is
+ * placed or flipped (adding and taking away the weights of the inputs that
+ * change), so that only the two small layers above are computed for each
+ * estimate. The sums are kept in whole numbers (the weights multiplied by
+ * NeuralNetwork.QUANTUM), so that taking a turn back restores them exactly.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class NeuralEvaluator implements Evaluator
+{
+    // The network, and the rounded weights and biases of its first layer
+    private final NeuralNetwork network;
+    private final int[] firstWeights;
+    private final int[] firstBiases;
+
+    // The position listened to (or null)
+    private BitboardPosition position;
+
+    // The sums of the first layer's units for the discs of the position
+    // (without the input of white to move), as whole numbers
+    private final int[] sums;
+
+    // The sums and outputs of the units of each layer, for the estimate being computed
+    private final float[] firstSums;
+    private final float[] firstOutputs;
+    private final float[] secondOutputs;
+
+    /**
+     * Create an evaluator that estimates positions with a network.
+     */
+    public NeuralEvaluator(NeuralNetwork network)
+    {
+        this.network = network;
+        firstWeights = network.getQuantizedFirstWeights();
+        firstBiases = network.getQuantizedFirstBiases();
+        sums = new int[NeuralNetwork.FIRST_UNITS];
+        firstSums = new float[NeuralNetwork.FIRST_UNITS];
+        firstOutputs = new float[NeuralNetwork.FIRST_UNITS];
+        secondOutputs = new float[NeuralNetwork.SECOND_UNITS];
+    }
+
+    /**
+     * Create an evaluator with the application's network for size x size
+     * boards, or get null if there is none.
+     */
+    public static NeuralEvaluator forSize(int size)
+    {
+        NeuralNetwork network = NeuralNetwork.forSize(size);
+        return (network != null) ? new NeuralEvaluator(network) : null;
+    }
+
+    // The following methods are implementations of the
+    // methods of the Evaluator interface.
+
+    @Override
+    public int getSize()
+    {
+        return NeuralNetwork.SIZE;
+    }
+
+    @Override
+    public void attach(BitboardPosition position)
+    {
+        if (position.getSize() != NeuralNetwork.SIZE) {
+            throw new IllegalArgumentException("The network can only evaluate " + NeuralNetwork.SIZE + " x " + NeuralNetwork.SIZE + " boards.");
+        }
+
+        detach();
+        this.position = position;
+        position.setListener(this);
+        discsChanged();
+    }
+
+    @Override
+    public void detach()
+    {
+        if (position != null) {
+            position.setListener(null);
+            position = null;
+        }
+    }
+
+    @Override
+    public int evaluate()
+    {
+        boolean whiteToMove = position.getSideToMove() == Position.WHITE;
+        int row = NeuralNetwork.WHITE_TO_MOVE_INPUT * NeuralNetwork.FIRST_UNITS;
+        for (int unit = 0; unit < sums.length; unit++) {
+            int sum = whiteToMove ? sums[unit] + firstWeights[row + unit] : sums[unit];
+            firstSums[unit] = sum * (1.0f / NeuralNetwork.QUANTUM);
+        }
+
+        int score = Math.round(network.computeOutput(firstSums, firstOutputs, secondOutputs));
+        return whiteToMove ? -score : score;
+    }
+
+    @Override
+    public Evaluator copy()
+    {
+        return new NeuralEvaluator(network);
+    }
+
+    // The following methods are implementations of the
+    // methods of the Listener interface.
+
+    @Override
+    public void turnTaken(int square, long flipped, int colour)
+    {
+        int own = getInput(colour, 0);
+        int opponent = getInput(1 - colour, 0);
+        add(own + square, 1);
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            int tile = Long.numberOfTrailingZeros(bits);
+            add(own + tile, 1);
+            add(opponent + tile, -1);
+        }
+    }
+
+    @Override
+    public void turnTakenBack(int square, long flipped, int colour)
+    {
+        int own = getInput(colour, 0);
+        int opponent = getInput(1 - colour, 0);
+        add(own + square, -1);
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            int tile = Long.numberOfTrailingZeros(bits);
+            add(own + tile, -1);
+            add(opponent + tile, 1);
+        }
+    }
+
+    @Override
+    public void discsChanged()
+    {
+        System.arraycopy(firstBiases, 0, sums, 0, sums.length);
+        for (long bits = position.getBlack(); bits != 0; bits &= bits - 1) {
+            add(getInput(Position.BLACK, Long.numberOfTrailingZeros(bits)), 1);
+        }
+        for (long bits = position.getWhite(); bits != 0; bits &= bits - 1) {
+            add(getInput(Position.WHITE, Long.numberOfTrailingZeros(bits)), 1);
+        }
+    }
+
+    /**
+     * Get the input of a disc of a colour on a tile.
+     */
+    private static int getInput(int colour, int square)
+    {
+        return (colour == Position.BLACK) ? square : NeuralNetwork.WHITE_INPUTS + square;
+    }
+
+    /**
+     * Add the weights of an input to the sums (or take them away, with a sign of -1).
+     */
+    private void add(int input, int sign)
+    {
+        int row = input * NeuralNetwork.FIRST_UNITS;
+        for (int unit = 0; unit < sums.length; unit++) {
+            sums[unit] += sign * firstWeights[row + unit];
+        }
+    }
+}
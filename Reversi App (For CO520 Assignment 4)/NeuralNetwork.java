@@ -0,0 +1,566 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The weights of a small neural network (a multilayer perceptron) that
+ * estimates 8 x 8 positions (see NeuralEvaluator). Its inputs are whether
+ * each tile has a black disc, whether each has a white disc, and whether
+ * white is to move; they feed two layers of hidden units, whose outputs
+ * are clipped between 0 and 1, and then one output: the score for black,
+ * in units of OUTPUT_SCALE (so that it can be added to the scores of the
+ * pattern evaluation).
+ *
+ * The network is trained by gradient descent on positions and the scores
+ * they should get. Run the main method to train one on the pattern
+ * evaluation of positions reached by random play, or on the scores the
+ * search gave the positions of self-play games (see SelfPlayGenerator).
+ *
+ * File layout: a header (the int MAGIC, the board size, and the number of
+ * inputs and of units of each hidden layer, as ints), then the weights and
+ * biases of each layer in turn, as big-endian floats.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class NeuralNetwork
+{
+    // The first four bytes of every network file ("RVNN")
+    public static final int MAGIC = 0x52564E4E;
+
+    // The size of the boards the network is for
+    public static final int SIZE = 8;
+
+    // The number of inputs (a black and a white disc on every tile, and
+    // white to move), and of units of each hidden layer
+    public static final int INPUTS = 2 * SIZE * SIZE + 1;
+    public static final int FIRST_UNITS = 32;
+    public static final int SECOND_UNITS = 16;
+
+    // The input of a white disc on the first tile, and of white to move
+    public static final int WHITE_INPUTS = SIZE * SIZE;
+    public static final int WHITE_TO_MOVE_INPUT = 2 * SIZE * SIZE;
+
+    // The number of units of a score that the network's output is in
+    public static final float OUTPUT_SCALE = 100;
+
+    // The number the weights of the first layer are multiplied by before they are rounded
+    public static final int QUANTUM = 1 << 12;
+
+    // The file the application's network is kept in
+    public static final String FILE = PatternWeights.FOLDER + File.separator + SIZE + "x" + SIZE + ".network";
+
+    // The number of times the training positions are gone through,
+    // how far the weights are moved each time, and how much they
+    // keep moving the way they moved before (momentum)
+    private static final int EPOCHS = 8;
+    private static final float LEARNING_RATE = 0.001f;
+    private static final float MOMENTUM = 0.9f;
+
+    // The number of positions trained on by the main method, by default
+    private static final int DEFAULT_TRAINING_POSITIONS = 200000;
+
+    // The score trained on for a position the search found won
+    // (or, negated, lost), whatever the number of discs
+    private static final int WON_SCORE = 1000;
+
+    // static field - The network of the application, once read (see forSize)
+    private static NeuralNetwork defaultNetwork;
+    private static boolean defaultNetworkRead;
+
+    // The weights of every layer, and the biases of every unit. The weights
+    // of the first layer are by input (the weights of an input to every unit
+    // are next to each other, to be added as the input changes), and those
+    // of the second layer by unit (the weights of every input to a unit are
+    // next to each other, to be multiplied by the inputs)
+    private final float[] firstWeights;
+    private final float[] firstBiases;
+    private final float[] secondWeights;
+    private final float[] secondBiases;
+    private final float[] outputWeights;
+    private final float[] outputBias;
+
+    // The weights of the first layer, multiplied by QUANTUM and rounded, once
+    // computed (so that the sums of the first layer can be added and taken away
+    // from exactly, as discs come and go - see NeuralEvaluator)
+    private int[] quantizedFirstWeights;
+    private int[] quantizedFirstBiases;
+
+    /**
+     * Create a network with small random weights.
+     */
+    public NeuralNetwork(long seed)
+    {
+        firstWeights = new float[INPUTS * FIRST_UNITS];
+        firstBiases = new float[FIRST_UNITS];
+        secondWeights = new float[FIRST_UNITS * SECOND_UNITS];
+        secondBiases = new float[SECOND_UNITS];
+        outputWeights = new float[SECOND_UNITS];
+        outputBias = new float[1];
+
+        Random random = new Random(seed);
+        randomize(firstWeights, random, INPUTS);
+        randomize(secondWeights, random, FIRST_UNITS);
+        randomize(outputWeights, random, SECOND_UNITS);
+        for (int unit = 0; unit < FIRST_UNITS; unit++) {
+            firstBiases[unit] = 0.5f;
+        }
+        for (int unit = 0; unit < SECOND_UNITS; unit++) {
+            secondBiases[unit] = 0.5f;
+        }
+    }
+
+    /**
+     * Give the weights of a layer random values, small enough for the
+     * layer's units not to start clipped whatever the inputs.
+     */
+    private static void randomize(float[] weights, Random random, int inputs)
+    {
+        float range = (float) (1 / Math.sqrt(inputs));
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (2 * random.nextFloat() - 1) * range;
+        }
+    }
+
+    /**
+     * Get the network the application uses on size x size boards
+     * (read from its file the first time), or null if there is none.
+     */
+    public static synchronized NeuralNetwork forSize(int size)
+    {
+        if (size != SIZE) {
+            return null;
+        }
+
+        if (! defaultNetworkRead) {
+            defaultNetworkRead = true;
+            File file = new File(FILE);
+            if (file.isFile()) {
+                try {
+                    defaultNetwork = read(file);
+                }
+                catch (IOException e) {
+                    System.err.println("The neural network could not be read: " + e.getMessage());
+                }
+            }
+        }
+
+        return defaultNetwork;
+    }
+
+    /**
+     * Get the weights of the first layer, multiplied by QUANTUM and rounded.
+     */
+    public synchronized int[] getQuantizedFirstWeights()
+    {
+        if (quantizedFirstWeights == null) {
+            quantizedFirstWeights = quantize(firstWeights);
+            quantizedFirstBiases = quantize(firstBiases);
+        }
+
+        return quantizedFirstWeights;
+    }
+
+    /**
+     * Get the biases of the first layer, multiplied by QUANTUM and rounded.
+     */
+    public synchronized int[] getQuantizedFirstBiases()
+    {
+        getQuantizedFirstWeights();
+        return quantizedFirstBiases;
+    }
+
+    /**
+     * Multiply weights by QUANTUM, and round them.
+     */
+    private static int[] quantize(float[] weights)
+    {
+        int[] quantized = new int[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            quantized[i] = Math.round(weights[i] * QUANTUM);
+        }
+
+        return quantized;
+    }
+
+    /**
+     * Compute the output of the second layer and of the network from the
+     * sums of the first layer's units (its weights times its inputs, plus
+     * its biases), using the arrays given for the outputs of the hidden units.
+     *
+     * @return The score for black, in units of a score.
+     */
+    public float computeOutput(float[] firstSums, float[] firstOutputs, float[] secondOutputs)
+    {
+        for (int unit = 0; unit < FIRST_UNITS; unit++) {
+            firstOutputs[unit] = clip(firstSums[unit]);
+        }
+
+        // Four sums are added up at once, as each addition has to wait for the one before
+        float score = outputBias[0];
+        for (int unit = 0; unit < SECOND_UNITS; unit++) {
+            int row = unit * FIRST_UNITS;
+            float sum0 = secondBiases[unit];
+            float sum1 = 0;
+            float sum2 = 0;
+            float sum3 = 0;
+            for (int input = 0; input < FIRST_UNITS; input += 4) {
+                sum0 += firstOutputs[input] * secondWeights[row + input];
+                sum1 += firstOutputs[input + 1] * secondWeights[row + input + 1];
+                sum2 += firstOutputs[input + 2] * secondWeights[row + input + 2];
+                sum3 += firstOutputs[input + 3] * secondWeights[row + input + 3];
+            }
+            secondOutputs[unit] = clip((sum0 + sum1) + (sum2 + sum3));
+            score += secondOutputs[unit] * outputWeights[unit];
+        }
+
+        return score * OUTPUT_SCALE;
+    }
+
+    /**
+     * Keep a sum between 0 and 1.
+     */
+    private static float clip(float sum)
+    {
+        return (sum < 0) ? 0 : (sum > 1) ? 1 : sum;
+    }
+
+    /**
+     * Train the network on a number of positions, each packed as the
+     * bitboards of its black and white discs and the colour to move,
+     * and the score (for the player to move) it should get.
+     *
+     * @return The root mean square error of the scores at the end (in units of a score).
+     */
+    public double train(long[] black, long[] white, int[] sidesToMove, int[] scores, int count, long seed)
+    {
+        Random random = new Random(seed);
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+
+        // The moves of every weight at the last step (for momentum)
+        float[] firstSteps = new float[firstWeights.length];
+        float[] firstBiasSteps = new float[firstBiases.length];
+        float[] secondSteps = new float[secondWeights.length];
+        float[] secondBiasSteps = new float[secondBiases.length];
+        float[] outputSteps = new float[outputWeights.length];
+        float[] outputBiasStep = new float[1];
+
+        int[] inputs = new int[INPUTS];
+        float[] firstSums = new float[FIRST_UNITS];
+        float[] firstOutputs = new float[FIRST_UNITS];
+        float[] secondOutputs = new float[SECOND_UNITS];
+        float[] firstErrors = new float[FIRST_UNITS];
+        float[] secondErrors = new float[SECOND_UNITS];
+
+        double squaredError = 0;
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            squaredError = 0;
+            float rate = LEARNING_RATE * (1 - (float) epoch / EPOCHS);
+            for (int i = count - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swapped = order[i];
+                order[i] = order[j];
+                order[j] = swapped;
+            }
+
+            for (int i = 0; i < count; i++) {
+                int position = order[i];
+
+                // The inputs that are 1 (the others are 0)
+                int inputCount = 0;
+                for (long bits = black[position]; bits != 0; bits &= bits - 1) {
+                    inputs[inputCount++] = Long.numberOfTrailingZeros(bits);
+                }
+                for (long bits = white[position]; bits != 0; bits &= bits - 1) {
+                    inputs[inputCount++] = WHITE_INPUTS + Long.numberOfTrailingZeros(bits);
+                }
+                if (sidesToMove[position] == Position.WHITE) {
+                    inputs[inputCount++] = WHITE_TO_MOVE_INPUT;
+                }
+
+                for (int unit = 0; unit < FIRST_UNITS; unit++) {
+                    firstSums[unit] = firstBiases[unit];
+                }
+                for (int k = 0; k < inputCount; k++) {
+                    int row = inputs[k] * FIRST_UNITS;
+                    for (int unit = 0; unit < FIRST_UNITS; unit++) {
+                        firstSums[unit] += firstWeights[row + unit];
+                    }
+                }
+
+                // The network scores for black, the training scores are for the player to move
+                float target = (sidesToMove[position] == Position.BLACK) ? scores[position] : -scores[position];
+                float error = (computeOutput(firstSums, firstOutputs, secondOutputs) - target) / OUTPUT_SCALE;
+                squaredError += error * error;
+
+                // Send the error back through the layers (the clipped units pass none back)
+                for (int unit = 0; unit < SECOND_UNITS; unit++) {
+                    float output = secondOutputs[unit];
+                    secondErrors[unit] = (output > 0 && output < 1) ? error * outputWeights[unit] : 0;
+                    outputSteps[unit] = MOMENTUM * outputSteps[unit] - rate * error * output;
+                    outputWeights[unit] += outputSteps[unit];
+                }
+                outputBiasStep[0] = MOMENTUM * outputBiasStep[0] - rate * error;
+                outputBias[0] += outputBiasStep[0];
+
+                for (int input = 0; input < FIRST_UNITS; input++) {
+                    float output = firstOutputs[input];
+                    float sum = 0;
+                    for (int unit = 0; unit < SECOND_UNITS; unit++) {
+                        int weight = unit * FIRST_UNITS + input;
+                        sum += secondErrors[unit] * secondWeights[weight];
+                        secondSteps[weight] = MOMENTUM * secondSteps[weight] - rate * secondErrors[unit] * output;
+                        secondWeights[weight] += secondSteps[weight];
+                    }
+                    firstErrors[input] = (output > 0 && output < 1) ? sum : 0;
+                }
+                for (int unit = 0; unit < SECOND_UNITS; unit++) {
+                    secondBiasSteps[unit] = MOMENTUM * secondBiasSteps[unit] - rate * secondErrors[unit];
+                    secondBiases[unit] += secondBiasSteps[unit];
+                }
+
+                // Only the weights of the inputs that are 1 are moved
+                // (the momentum of the others is kept for when they are)
+                for (int k = 0; k < inputCount; k++) {
+                    int row = inputs[k] * FIRST_UNITS;
+                    for (int unit = 0; unit < FIRST_UNITS; unit++) {
+                        firstSteps[row + unit] = MOMENTUM * firstSteps[row + unit] - rate * firstErrors[unit];
+                        firstWeights[row + unit] += firstSteps[row + unit];
+                    }
+                }
+                for (int unit = 0; unit < FIRST_UNITS; unit++) {
+                    firstBiasSteps[unit] = MOMENTUM * firstBiasSteps[unit] - rate * firstErrors[unit];
+                    firstBiases[unit] += firstBiasSteps[unit];
+                }
+            }
+        }
+
+        quantizedFirstWeights = null;
+        return Math.sqrt(squaredError / count) * OUTPUT_SCALE;
+    }
+
+    /**
+     * Read a network from a file.
+     *
+     * @throws IOException If the file cannot be read, or does not hold a network of this shape.
+     */
+    public static NeuralNetwork read(File file) throws IOException
+    {
+        NeuralNetwork network = new NeuralNetwork(0);
+        try (RandomAccessFile networkFile = new RandomAccessFile(file, "r");
+             FileChannel channel = networkFile.getChannel()) {
+            if (channel.size() != network.getFileBytes()) {
+                throw new IOException(file + " does not hold a neural network of this shape.");
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate((int) channel.size());
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) {
+                    throw new IOException("The network file ends too soon.");
+                }
+            }
+            bytes.flip();
+
+            if (bytes.getInt() != MAGIC || bytes.getInt() != SIZE || bytes.getInt() != INPUTS
+                || bytes.getInt() != FIRST_UNITS || bytes.getInt() != SECOND_UNITS) {
+                throw new IOException(file + " does not hold a neural network of this shape.");
+            }
+            FloatBuffer floats = bytes.asFloatBuffer();
+            for (float[] layer : network.getLayers()) {
+                floats.get(layer);
+            }
+        }
+
+        return network;
+    }
+
+    /**
+     * Write the network to a file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file) throws IOException
+    {
+        ByteBuffer bytes = ByteBuffer.allocate(getFileBytes());
+        bytes.putInt(MAGIC).putInt(SIZE).putInt(INPUTS).putInt(FIRST_UNITS).putInt(SECOND_UNITS);
+        FloatBuffer floats = bytes.asFloatBuffer();
+        for (float[] layer : getLayers()) {
+            floats.put(layer);
+        }
+        bytes.position(bytes.capacity());
+        bytes.flip();
+
+        try (RandomAccessFile networkFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = networkFile.getChannel()) {
+            channel.truncate(0);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Get the weights and biases of every layer, in the order they are stored.
+     */
+    private float[][] getLayers()
+    {
+        return new float[][] {firstWeights, firstBiases, secondWeights, secondBiases, outputWeights, outputBias};
+    }
+
+    /**
+     * Get the number of bytes of a network file.
+     */
+    private int getFileBytes()
+    {
+        int floats = 0;
+        for (float[] layer : getLayers()) {
+            floats += layer.length;
+        }
+
+        return 5 * Integer.BYTES + floats * Float.BYTES;
+    }
+
+    /**
+     * Train a network on the positions searched in self-play games, in the
+     * shards of a folder, or on a number of positions reached by random play
+     * (estimated by their patterns), and write it to the application's
+     * network file.
+     *
+     * To run it: java NeuralNetwork [shard folder | positions]
+     */
+    public static void main(String[] args)
+    {
+        try {
+            File folder = new File((args.length > 0) ? args[0] : "");
+            if (folder.isDirectory()) {
+                trainOnShards(folder);
+            }
+            else {
+                trainOnRandomPositions((args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_TRAINING_POSITIONS);
+            }
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Usage: java NeuralNetwork [shard folder | positions]");
+            System.exit(2);
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Train a network on the scores the search gave the positions in
+     * the shards of a folder, and write it.
+     *
+     * @throws IOException If a shard cannot be read, or the network cannot be written.
+     */
+    private static void trainOnShards(File folder) throws IOException
+    {
+        File[] files = folder.listFiles((directory, name) -> name.endsWith(".bin"));
+        List<TrainingShard> shards = new ArrayList<>();
+        long total = 0;
+        for (File file : files) {
+            TrainingShard shard = new TrainingShard(file);
+            if (shard.getSize() == SIZE) {
+                shards.add(shard);
+                total += shard.getRecords();
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("There are too many positions in " + folder + " to train on at once.");
+        }
+
+        // Only the positions that were searched have a score
+        long[] black = new long[(int) total];
+        long[] white = new long[(int) total];
+        int[] sidesToMove = new int[(int) total];
+        int[] scores = new int[(int) total];
+        int count = 0;
+        for (TrainingShard shard : shards) {
+            for (int record = 0; record < shard.getRecords(); record++) {
+                if (shard.getDepth(record) > 0) {
+                    black[count] = shard.getBlack(record);
+                    white[count] = shard.getWhite(record);
+                    sidesToMove[count] = shard.getSideToMove(record);
+                    int score = shard.getScore(record);
+                    if (Math.abs(score) >= AlphaBetaEngine.WIN_SCORE) {
+                        score = (score > 0) ? WON_SCORE : -WON_SCORE;
+                    }
+                    scores[count++] = score;
+                }
+            }
+        }
+
+        trainAndWrite(black, white, sidesToMove, scores, count);
+    }
+
+    /**
+     * Train a network on the pattern evaluation of a number of positions
+     * reached by random play, and write it.
+     *
+     * @throws IOException If the network cannot be written.
+     */
+    private static void trainOnRandomPositions(int count) throws IOException
+    {
+        PatternWeights weights = PatternWeights.forSize(SIZE);
+        if (weights == null) {
+            weights = PatternWeights.createDefault();
+        }
+
+        long[] black = new long[count];
+        long[] white = new long[count];
+        int[] sidesToMove = new int[count];
+        int[] scores = new int[count];
+        Random random = new Random(SIZE);
+        int[] squares = new int[SIZE * SIZE];
+        for (int i = 0; i < count; i++) {
+            Position position = Position.create(SIZE);
+            int turns = random.nextInt(SIZE * SIZE - 4);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int moves = position.getLegalMoves(squares);
+                if (moves == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(moves)]);
+                }
+            }
+
+            black[i] = ((BitboardPosition) position).getBlack();
+            white[i] = ((BitboardPosition) position).getWhite();
+            sidesToMove[i] = position.getSideToMove();
+        }
+        BatchEvaluator.create(weights).evaluate(black, white, sidesToMove, scores, count);
+
+        trainAndWrite(black, white, sidesToMove, scores, count);
+    }
+
+    /**
+     * Train a network on a number of positions and their scores, and
+     * write it to the application's network file.
+     *
+     * @throws IOException If the network cannot be written.
+     */
+    private static void trainAndWrite(long[] black, long[] white, int[] sidesToMove, int[] scores, int count)
+        throws IOException
+    {
+        NeuralNetwork network = new NeuralNetwork(SIZE);
+        long start = System.nanoTime();
+        double error = network.train(black, white, sidesToMove, scores, count, SIZE);
+        System.out.printf("Trained on %d positions in %.1f s (root mean square error %.1f).%n",
+                          count, (System.nanoTime() - start) / 1e9, error);
+
+        network.write(new File(FILE));
+        System.out.println("Network written to " + FILE + ".");
+    }
+}
@@ -0,0 +1,222 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The moves to play in positions at the start of a game, found before
+ * the game (see OpeningBookBuilder), so that they do not have to be
+ * searched for again in every game.
+ *
+ * A book is a file of entries sorted by the hash of their position, each
+ * with the move to play and the number of games it was found in. As the
+ * eight symmetries of a board (see Position.getSymmetricSquare) lead to
+ * equally good moves, only one of them is kept: the one with the lowest
+ * hash (the "canonical" one), with its move turned the same way.
+ *
+ * The file is mapped into memory rather than read, so that opening a book
+ * of tens of millions of entries is immediate and takes no room on the heap,
+ * and looking up a position is a binary search of the mapped file that
+ * creates no objects.
+ *
+ * File layout: a header (the int MAGIC, the board size as an int and the
+ * number of entries as a long), then ENTRY_BYTES bytes per entry (the hash
+ * as a long, the move and the number of games as ints), all big-endian.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class OpeningBook
+{
+    // The first four bytes of every book ("RVOB")
+    public static final int MAGIC = 0x52564F42;
+
+    // The number of bytes of the header and of each entry
+    public static final int HEADER_BYTES = 16;
+    public static final int ENTRY_BYTES = 16;
+
+    // The folder the application's books are kept in
+    // (as "8x8.book", and so on for every board size)
+    public static final String FOLDER = "opening books";
+
+    // static field - The book of each board size, once opened by the application
+    // (null for the sizes that have no book)
+    private static final HashMap<Integer, OpeningBook> BOOKS = new HashMap<>();
+
+    // The size of the boards the book is for
+    private final int size;
+
+    // The number of entries, and the mapped file
+    private final long entries;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Open the book in a file.
+     *
+     * @throws IOException If the file cannot be read, or is not an opening book.
+     */
+    public OpeningBook(File file) throws IOException
+    {
+        try (RandomAccessFile book = new RandomAccessFile(file, "r");
+             FileChannel channel = book.getChannel()) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be mapped into memory.");
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not an opening book.");
+        }
+        size = buffer.getInt(4);
+        entries = buffer.getLong(8);
+        if (entries < 0 || HEADER_BYTES + entries * ENTRY_BYTES != buffer.capacity()) {
+            throw new IOException(file + " is not a complete opening book.");
+        }
+    }
+
+    /**
+     * Get the book the application uses on size x size boards,
+     * opening it the first time, or null if there is none.
+     */
+    public static synchronized OpeningBook forSize(int size)
+    {
+        if (! BOOKS.containsKey(size)) {
+            OpeningBook book = null;
+            File file = new File(FOLDER, size + "x" + size + ".book");
+            if (file.isFile()) {
+                try {
+                    book = new OpeningBook(file);
+                }
+                catch (IOException e) {
+                    System.err.println("The opening book could not be opened: " + e.getMessage());
+                }
+            }
+            BOOKS.put(size, book);
+        }
+
+        return BOOKS.get(size);
+    }
+
+    /**
+     * Get the size of the boards the book is for.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the number of positions in the book.
+     */
+    public long getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * Look up the move to play in a position.
+     *
+     * @return The square to play on, or PASS if the position is not in the book.
+     */
+    public int lookup(Position position)
+    {
+        if (position.getSize() != size) {
+            return Position.PASS;
+        }
+
+        int symmetry = position.getCanonicalSymmetry();
+        long key = position.getHash(symmetry);
+
+        long entry = find(key);
+        if (entry < 0) {
+            return Position.PASS;
+        }
+
+        // Turn the move back the way the position is
+        int move = buffer.getInt((int) (HEADER_BYTES + entry * ENTRY_BYTES + 8));
+        return position.getSymmetricSquare(move, Position.getInverseSymmetry(symmetry));
+    }
+
+    /**
+     * Find the entry of a hash by binary search.
+     *
+     * @return The number of the entry, or -1 if there is none.
+     */
+    private long find(long key)
+    {
+        long low = 0;
+        long high = entries - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            long middleKey = buffer.getLong((int) (HEADER_BYTES + middle * ENTRY_BYTES));
+            if (middleKey < key) {
+                low = middle + 1;
+            }
+            else if (middleKey > key) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Write a book to a file: for every canonical hash, the move to play
+     * (turned the same way as the canonical position) and the number of
+     * games it was found in.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(File file, int size, Map<Long, int[]> moves) throws IOException
+    {
+        long[] keys = new long[moves.size()];
+        int count = 0;
+        for (long key : moves.keySet()) {
+            keys[count++] = key;
+        }
+        Arrays.sort(keys);
+
+        try (RandomAccessFile book = new RandomAccessFile(file, "rw");
+             FileChannel channel = book.getChannel()) {
+            channel.truncate(0);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(size).putLong(keys.length).flip();
+            writeFully(channel, header);
+
+            ByteBuffer block = ByteBuffer.allocate(4096 * ENTRY_BYTES);
+            for (long key : keys) {
+                int[] move = moves.get(key);
+                block.putLong(key).putInt(move[0]).putInt(move[1]);
+                if (! block.hasRemaining()) {
+                    block.flip();
+                    writeFully(channel, block);
+                    block.clear();
+                }
+            }
+            block.flip();
+            writeFully(channel, block);
+        }
+    }
+
+    /**
+     * Write every byte left in a buffer to a channel.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException
+    {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
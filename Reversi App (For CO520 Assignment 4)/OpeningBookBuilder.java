@@ -0,0 +1,214 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A command-line tool that builds an opening book (see OpeningBook),
+ * either from games the computer player plays against itself, or from
+ * games written down elsewhere (one game per line, as the tiles played on,
+ * e.g. "f5d6c3d3c4": a column letter then a row number for each move, with
+ * passes left out). For every position reached in the first turns of the
+ * games, the book keeps the move found in the most games.
+ *
+ * In games the computer plays against itself, every position is searched
+ * to a fixed depth, and the first few moves of each game are played at
+ * random, so that the games do not all follow the same line.
+ *
+ * To run it:
+ * java OpeningBookBuilder self-play [board size] [games] [turns] [depth] [book file]
+ * java OpeningBookBuilder import [board size] [turns] [games file] [book file]
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class OpeningBookBuilder
+{
+    // The number of turns played at random at the start of a game the
+    // computer plays against itself
+    private static final int RANDOM_TURNS = 6;
+
+    // The time allowed for a search to the depth asked for (in milliseconds),
+    // long enough for the depth to be the only limit
+    private static final long SEARCH_TIME_BUDGET = 3600000;
+
+    // The size of the boards the book is for
+    private int size;
+
+    // The number of turns at the start of a game whose positions are kept
+    private int turns;
+
+    // For every canonical position, the number of games each move (turned
+    // the same way as the position) was found in
+    private HashMap<Long, HashMap<Integer, Integer>> moves;
+
+    /**
+     * Constructor for objects of class OpeningBookBuilder
+     */
+    public OpeningBookBuilder(int size, int turns)
+    {
+        this.size = size;
+        this.turns = turns;
+        moves = new HashMap<>();
+    }
+
+    /**
+     * Play games of the computer player against itself, searching
+     * every position to a depth, and add their moves to the book.
+     */
+    public void addSelfPlayGames(int games, int depth, long seed)
+    {
+        AlphaBetaEngine engine = new AlphaBetaEngine(SEARCH_TIME_BUDGET);
+        engine.setMaxDepth(depth);
+        engine.setEndgameEmpties(0);
+        Random random = new Random(seed);
+        int[] squares = new int[size * size];
+
+        for (int game = 0; game < games; game++) {
+            Position position = Position.create(size);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                    continue;
+                }
+
+                int move = engine.search(position);
+                add(position, move);
+                position.play((turn < RANDOM_TURNS) ? squares[random.nextInt(count)] : move);
+            }
+
+            System.out.printf("Game %d of %d played, %d positions in the book.%n", game + 1, games, moves.size());
+        }
+    }
+
+    /**
+     * Add the moves of the games written in a file (one game per line)
+     * to the book. Lines that are not games are reported and skipped.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    public void addGames(File file) throws IOException
+    {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (! addGame(line.trim().toLowerCase())) {
+                    System.err.println("Line " + lineNumber + " is not a game of legal moves, and was skipped.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the moves of the first turns of a game (written as the tiles
+     * played on) to the book.
+     *
+     * @return Whether the game was made of legal moves.
+     */
+    private boolean addGame(String game)
+    {
+        Position position = Position.create(size);
+        int turn = 0;
+        int i = 0;
+        while (i < game.length() && turn < turns) {
+            int col = game.charAt(i++) - 'a';
+            int row = 0;
+            int digits = 0;
+            while (i < game.length() && Character.isDigit(game.charAt(i))) {
+                row = row * 10 + (game.charAt(i++) - '0');
+                digits++;
+            }
+            row--;
+
+            if (! position.canMove()) {
+                position.pass();
+                turn++;
+            }
+            if (digits == 0 || col < 0 || col >= size || row < 0 || row >= size || ! position.isLegal(row, col)) {
+                return false;
+            }
+
+            add(position, row * size + col);
+            position.play(row, col);
+            turn++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Count a move found for a position, under the canonical symmetry of the position.
+     */
+    private void add(Position position, int move)
+    {
+        int symmetry = position.getCanonicalSymmetry();
+        long key = position.getHash(symmetry);
+
+        moves.computeIfAbsent(key, k -> new HashMap<>())
+             .merge(position.getSymmetricSquare(move, symmetry), 1, Integer::sum);
+    }
+
+    /**
+     * Write the book to a file, with the move found in the most games for every position.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file) throws IOException
+    {
+        HashMap<Long, int[]> bookMoves = new HashMap<>();
+        for (Map.Entry<Long, HashMap<Integer, Integer>> position : moves.entrySet()) {
+            int[] best = {Position.PASS, 0};
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                if (move.getValue() > best[1]) {
+                    best[0] = move.getKey();
+                    best[1] = move.getValue();
+                }
+            }
+            bookMoves.put(position.getKey(), best);
+        }
+
+        OpeningBook.write(file, size, bookMoves);
+    }
+
+    /**
+     * Build a book from the games given on the command line.
+     */
+    public static void main(String[] args)
+    {
+        try {
+            OpeningBookBuilder builder;
+            File bookFile;
+            if (args.length == 6 && args[0].equals("self-play")) {
+                builder = new OpeningBookBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[3]));
+                builder.addSelfPlayGames(Integer.parseInt(args[2]), Integer.parseInt(args[4]), 520L);
+                bookFile = new File(args[5]);
+            }
+            else if (args.length == 5 && args[0].equals("import")) {
+                builder = new OpeningBookBuilder(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+                builder.addGames(new File(args[3]));
+                bookFile = new File(args[4]);
+            }
+            else {
+                throw new NumberFormatException();
+            }
+
+            builder.write(bookFile);
+            System.out.println(builder.moves.size() + " positions written to " + bookFile + ".");
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Usage: java OpeningBookBuilder self-play [board size] [games] [turns] [depth] [book file]");
+            System.err.println("       java OpeningBookBuilder import [board size] [turns] [games file] [book file]");
+            System.exit(2);
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * An estimate of how good an 8 x 8 position is, from the patterns of
+ * discs on its edges, corners, diagonals and rows (scored by the tables
+ * of a PatternWeights), the number of moves each player has and which
+ * player can expect to play last.
+ *
+ * The evaluator listens to the BitboardPosition it is attached to, and
+ * keeps the index of every place a pattern is looked at (the base 3
+ * number of its tiles' discs: 0 for empty, 1 for black, 2 for white,
+ * plus where the pattern's table starts) up to date as each disc is
+ * placed or flipped, so that estimating the position is only a matter
+ * of adding up one weight per place.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class PatternEvaluator implements Evaluator
+{
+    // The digit of each kind of tile in a pattern's index
+    public static final int EMPTY_DIGIT = 0;
+    public static final int BLACK_DIGIT = 1;
+    public static final int WHITE_DIGIT = 2;
+
+    // static fields - For every tile, the places (see PatternWeights.PLACE_SQUARES)
+    // it is in and the power of 3 of its digit there
+    static final int[][] SQUARE_PLACES;
+    static final int[][] SQUARE_POWERS;
+
+    static {
+        int places = PatternWeights.PLACE_SQUARES.length;
+        int squares = PatternWeights.SIZE * PatternWeights.SIZE;
+        int[] counts = new int[squares];
+        int[][] placesOf = new int[squares][places];
+        int[][] powersOf = new int[squares][places];
+        for (int place = 0; place < places; place++) {
+            int power = 1;
+            for (int tile : PatternWeights.PLACE_SQUARES[place]) {
+                placesOf[tile][counts[tile]] = place;
+                powersOf[tile][counts[tile]++] = power;
+                power *= 3;
+            }
+        }
+
+        SQUARE_PLACES = new int[squares][];
+        SQUARE_POWERS = new int[squares][];
+        for (int tile = 0; tile < squares; tile++) {
+            SQUARE_PLACES[tile] = Arrays.copyOf(placesOf[tile], counts[tile]);
+            SQUARE_POWERS[tile] = Arrays.copyOf(powersOf[tile], counts[tile]);
+        }
+    }
+
+    // The weights the position is estimated with
+    private final PatternWeights weights;
+
+    // The position listened to (or null)
+    private BitboardPosition position;
+
+    // The index of every place a pattern is looked at in the weights of a stage
+    private final int[] indices;
+
+    /**
+     * Create an evaluator that estimates positions with some weights.
+     */
+    public PatternEvaluator(PatternWeights weights)
+    {
+        this.weights = weights;
+        indices = new int[PatternWeights.PLACE_PATTERNS.length];
+    }
+
+    /**
+     * Create an evaluator with the application's weights for size x size
+     * boards, or get null if there are none.
+     */
+    public static PatternEvaluator forSize(int size)
+    {
+        PatternWeights weights = PatternWeights.forSize(size);
+        return (weights != null) ? new PatternEvaluator(weights) : null;
+    }
+
+    // The following methods are implementations of the
+    // methods of the Evaluator interface.
+
+    @Override
+    public int getSize()
+    {
+        return PatternWeights.SIZE;
+    }
+
+    @Override
+    public void attach(BitboardPosition position)
+    {
+        if (position.getSize() != PatternWeights.SIZE) {
+            throw new IllegalArgumentException("Patterns can only be evaluated on " + PatternWeights.SIZE + " x " + PatternWeights.SIZE + " boards.");
+        }
+
+        detach();
+        this.position = position;
+        position.setListener(this);
+        discsChanged();
+    }
+
+    @Override
+    public void detach()
+    {
+        if (position != null) {
+            position.setListener(null);
+            position = null;
+        }
+    }
+
+    @Override
+    public int evaluate()
+    {
+        long black = position.getBlack();
+        long white = position.getWhite();
+        int discs = Long.bitCount(black | white);
+        int stage = weights.getStage(discs);
+
+        short[] tables = weights.getTables(stage);
+        int score = 0;
+        for (int index : indices) {
+            score += tables[index];
+        }
+
+        score += weights.getMobilityWeight(stage) * (Long.bitCount(position.getLegalMoves(Position.BLACK))
+                                                     - Long.bitCount(position.getLegalMoves(Position.WHITE)));
+
+        // With an odd number of empty tiles left, the player to move can expect to play last
+        int parity = ((PatternWeights.SIZE * PatternWeights.SIZE - discs) % 2 == 1) ? 1 : -1;
+        int sign = (position.getSideToMove() == Position.BLACK) ? 1 : -1;
+        return sign * score + parity * weights.getParityWeight(stage);
+    }
+
+    @Override
+    public Evaluator copy()
+    {
+        return new PatternEvaluator(weights);
+    }
+
+    /**
+     * Get the index of every place a pattern is looked at (kept up to date).
+     */
+    public int[] getIndices()
+    {
+        return indices;
+    }
+
+    // The following methods are implementations of the
+    // methods of the Listener interface.
+
+    @Override
+    public void turnTaken(int square, long flipped, int colour)
+    {
+        // A flip turns a digit of 2 (white) into 1 (black), or the other way round
+        int digit = (colour == Position.BLACK) ? BLACK_DIGIT : WHITE_DIGIT;
+        int flip = (colour == Position.BLACK) ? -1 : 1;
+        update(square, digit);
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            update(Long.numberOfTrailingZeros(bits), flip);
+        }
+    }
+
+    @Override
+    public void turnTakenBack(int square, long flipped, int colour)
+    {
+        int digit = (colour == Position.BLACK) ? BLACK_DIGIT : WHITE_DIGIT;
+        int flip = (colour == Position.BLACK) ? -1 : 1;
+        update(square, -digit);
+        for (long bits = flipped; bits != 0; bits &= bits - 1) {
+            update(Long.numberOfTrailingZeros(bits), -flip);
+        }
+    }
+
+    @Override
+    public void discsChanged()
+    {
+        for (int place = 0; place < indices.length; place++) {
+            indices[place] = PatternWeights.TABLE_OFFSETS[PatternWeights.PLACE_PATTERNS[place]];
+        }
+        long black = position.getBlack();
+        long white = position.getWhite();
+        for (long bits = black; bits != 0; bits &= bits - 1) {
+            update(Long.numberOfTrailingZeros(bits), BLACK_DIGIT);
+        }
+        for (long bits = white; bits != 0; bits &= bits - 1) {
+            update(Long.numberOfTrailingZeros(bits), WHITE_DIGIT);
+        }
+    }
+
+    /**
+     * Add an amount to the digit of a tile in every place it is in.
+     */
+    private void update(int square, int amount)
+    {
+        int[] places = SQUARE_PLACES[square];
+        int[] powers = SQUARE_POWERS[square];
+        for (int i = 0; i < places.length; i++) {
+            indices[places[i]] += amount * powers[i];
+        }
+    }
+}
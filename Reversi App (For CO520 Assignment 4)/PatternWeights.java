@@ -0,0 +1,374 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The weights of a pattern-based evaluation of 8 x 8 positions (see
+ * PatternEvaluator). A pattern is a line or block of tiles, such as an
+ * edge or a corner, and its weight table holds a score for every way
+ * (3 to the power of its number of tiles) that its tiles can be empty,
+ * black or white. Every pattern is looked at in several places on the
+ * board (turned by the board's symmetries), all scored with its table.
+ * There are also weights for the difference in the number of moves each
+ * player has (mobility), and for the player to move being the one who
+ * can expect to play last (parity).
+ *
+ * As what matters changes during a game, there is a set of weights for
+ * each of a number of stages of the game (by the number of discs on the
+ * board).
+ *
+ * Scores are from black's point of view. They are kept in arrays of shorts,
+ * and stored in a compact binary file: a header (the int MAGIC, the board
+ * size, the number of stages and the number of patterns, as ints), then for
+ * every stage, the weight table of every pattern, then the mobility weight
+ * and the parity weight of every stage, all as big-endian shorts.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class PatternWeights
+{
+    // The first four bytes of every weights file ("RVPW")
+    public static final int MAGIC = 0x52565057;
+
+    // The size of the boards the patterns are for
+    public static final int SIZE = 8;
+
+    // The folder the application's weights are kept in (as "8x8.weights")
+    public static final String FOLDER = "weights";
+
+    // static fields - The tiles of every pattern (edge with the two X-squares,
+    // 3 x 3 corner, diagonals of 8, 7, 6, 5 and 4 tiles, and the second, third
+    // and fourth rows), in one of the places it is looked at, and the symmetries
+    // of the board that move it to every other place
+    static final int[][] PATTERNS = {
+        {0, 1, 2, 3, 4, 5, 6, 7, 9, 14},
+        {0, 1, 2, 8, 9, 10, 16, 17, 18},
+        {0, 9, 18, 27, 36, 45, 54, 63},
+        {1, 10, 19, 28, 37, 46, 55},
+        {2, 11, 20, 29, 38, 47},
+        {3, 12, 21, 30, 39},
+        {4, 13, 22, 31},
+        {8, 9, 10, 11, 12, 13, 14, 15},
+        {16, 17, 18, 19, 20, 21, 22, 23},
+        {24, 25, 26, 27, 28, 29, 30, 31}
+    };
+    static final int[][] PATTERN_SYMMETRIES = {
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3},
+        {0, 1, 2, 3}
+    };
+
+    // static field - Where the weight table of each pattern starts in the
+    // weights of a stage (in which the tables are kept one after the other)
+    static final int[] TABLE_OFFSETS = new int[PATTERNS.length + 1];
+
+    // static fields - The pattern of every place a pattern is looked at, and
+    // the tiles of the place (the first one's digit being the lowest of the index)
+    static final int[] PLACE_PATTERNS;
+    static final int[][] PLACE_SQUARES;
+
+    static {
+        int places = 0;
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            TABLE_OFFSETS[pattern + 1] = TABLE_OFFSETS[pattern] + getTableSize(pattern);
+            places += PATTERN_SYMMETRIES[pattern].length;
+        }
+
+        PLACE_PATTERNS = new int[places];
+        PLACE_SQUARES = new int[places][];
+        int place = 0;
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            for (int symmetry : PATTERN_SYMMETRIES[pattern]) {
+                PLACE_PATTERNS[place] = pattern;
+                PLACE_SQUARES[place] = new int[PATTERNS[pattern].length];
+                for (int i = 0; i < PATTERNS[pattern].length; i++) {
+                    PLACE_SQUARES[place][i] = Position.getSymmetricSquare(PATTERNS[pattern][i], symmetry, SIZE);
+                }
+                place++;
+            }
+        }
+    }
+
+    // static field - The weight of a disc on each tile in the default weights
+    // (corners are worth most, and the tiles next to them least)
+    private static final int[] SQUARE_WEIGHTS = {
+        100, -20, 10, 5, 5, 10, -20, 100,
+        -20, -50, -2, -2, -2, -2, -50, -20,
+        10, -2, 1, 1, 1, 1, -2, 10,
+        5, -2, 1, 0, 0, 1, -2, 5,
+        5, -2, 1, 0, 0, 1, -2, 5,
+        10, -2, 1, 1, 1, 1, -2, 10,
+        -20, -50, -2, -2, -2, -2, -50, -20,
+        100, -20, 10, 5, 5, 10, -20, 100
+    };
+
+    // static fields - The default weights of a move, and of playing last
+    private static final short DEFAULT_MOBILITY_WEIGHT = 20;
+    private static final short DEFAULT_PARITY_WEIGHT = 0;
+
+    // static field - The weights of the application, once read (see forSize)
+    private static PatternWeights defaultWeights;
+    private static boolean defaultWeightsRead;
+
+    // For every stage, the weight tables of every pattern, one after the other
+    private final short[][] tables;
+
+    // For every stage, the weight of a move more than the opponent,
+    // and of being the player who can expect to play last
+    private final short[] mobilityWeights;
+    private final short[] parityWeights;
+
+    /**
+     * Create weights for a number of stages of the game, all zero.
+     */
+    public PatternWeights(int stages)
+    {
+        if (stages < 1 || stages > SIZE * SIZE) {
+            throw new IllegalArgumentException("The number of stages must be between 1 and " + SIZE * SIZE + ".");
+        }
+
+        tables = new short[stages][TABLE_OFFSETS[PATTERNS.length]];
+        mobilityWeights = new short[stages];
+        parityWeights = new short[stages];
+    }
+
+    /**
+     * Create the default weights: one stage, in which every pattern scores
+     * the weights of the tiles of its discs (shared out between the patterns
+     * each tile is in), and a fixed weight for every move.
+     */
+    public static PatternWeights createDefault()
+    {
+        // The number of places a pattern is looked at that cover each tile
+        int[] coverage = new int[SIZE * SIZE];
+        for (int[] squares : PLACE_SQUARES) {
+            for (int square : squares) {
+                coverage[square]++;
+            }
+        }
+
+        PatternWeights weights = new PatternWeights(1);
+        for (int pattern = 0; pattern < PATTERNS.length; pattern++) {
+            int[] squares = PATTERNS[pattern];
+            short[] table = weights.tables[0];
+            for (int index = 0; index < getTableSize(pattern); index++) {
+                double score = 0;
+                int digits = index;
+                for (int square : squares) {
+                    int disc = digits % 3;
+                    digits /= 3;
+                    if (disc == PatternEvaluator.BLACK_DIGIT) {
+                        score += (double) SQUARE_WEIGHTS[square] / coverage[square];
+                    }
+                    else if (disc == PatternEvaluator.WHITE_DIGIT) {
+                        score -= (double) SQUARE_WEIGHTS[square] / coverage[square];
+                    }
+                }
+                table[TABLE_OFFSETS[pattern] + index] = (short) Math.round(score);
+            }
+        }
+        weights.mobilityWeights[0] = DEFAULT_MOBILITY_WEIGHT;
+        weights.parityWeights[0] = DEFAULT_PARITY_WEIGHT;
+        return weights;
+    }
+
+    /**
+     * Get the weights the application uses on size x size boards
+     * (read from their file the first time), or null if there are none.
+     */
+    public static synchronized PatternWeights forSize(int size)
+    {
+        if (size != SIZE) {
+            return null;
+        }
+
+        if (! defaultWeightsRead) {
+            defaultWeightsRead = true;
+            File file = new File(FOLDER, SIZE + "x" + SIZE + ".weights");
+            if (file.isFile()) {
+                try {
+                    defaultWeights = read(file);
+                }
+                catch (IOException e) {
+                    System.err.println("The evaluation weights could not be read: " + e.getMessage());
+                }
+            }
+        }
+
+        return defaultWeights;
+    }
+
+    /**
+     * Read weights from a file.
+     *
+     * @throws IOException If the file cannot be read, or does not hold weights for these patterns.
+     */
+    public static PatternWeights read(File file) throws IOException
+    {
+        try (RandomAccessFile weightsFile = new RandomAccessFile(file, "r");
+             FileChannel channel = weightsFile.getChannel()) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            readFully(channel, header);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != SIZE) {
+                throw new IOException(file + " does not hold evaluation weights for " + SIZE + " x " + SIZE + " boards.");
+            }
+            int stages = header.getInt();
+            if (header.getInt() != PATTERNS.length || stages < 1 || stages > SIZE * SIZE) {
+                throw new IOException(file + " holds weights for other patterns.");
+            }
+
+            PatternWeights weights = new PatternWeights(stages);
+            if (channel.size() != 16 + 2L * stages * (TABLE_OFFSETS[PATTERNS.length] + 2)) {
+                throw new IOException(file + " is not a complete weights file.");
+            }
+
+            // The shorts are copied in bulk from a buffer of the whole rest of the file
+            ByteBuffer bytes = ByteBuffer.allocate((int) (channel.size() - 16));
+            readFully(channel, bytes);
+            bytes.flip();
+            for (short[] table : weights.tables) {
+                bytes.asShortBuffer().get(table);
+                bytes.position(bytes.position() + 2 * table.length);
+            }
+            bytes.asShortBuffer().get(weights.mobilityWeights);
+            bytes.position(bytes.position() + 2 * stages);
+            bytes.asShortBuffer().get(weights.parityWeights);
+            return weights;
+        }
+    }
+
+    /**
+     * Write the weights to a file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(File file) throws IOException
+    {
+        int stages = getStages();
+        ByteBuffer bytes = ByteBuffer.allocate(16 + 2 * stages * (TABLE_OFFSETS[PATTERNS.length] + 2));
+        bytes.putInt(MAGIC).putInt(SIZE).putInt(stages).putInt(PATTERNS.length);
+        for (short[] table : tables) {
+            bytes.asShortBuffer().put(table);
+            bytes.position(bytes.position() + 2 * table.length);
+        }
+        bytes.asShortBuffer().put(mobilityWeights);
+        bytes.position(bytes.position() + 2 * stages);
+        bytes.asShortBuffer().put(parityWeights);
+        bytes.position(bytes.position() + 2 * stages);
+        bytes.flip();
+
+        try (RandomAccessFile weightsFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = weightsFile.getChannel()) {
+            channel.truncate(0);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Get the number of stages of the game that have their own weights.
+     */
+    public int getStages()
+    {
+        return tables.length;
+    }
+
+    /**
+     * Get the stage of the game of a position with a number of discs.
+     */
+    public int getStage(int discs)
+    {
+        return Math.min(tables.length - 1, Math.max(0, discs - 4) * tables.length / (SIZE * SIZE - 4));
+    }
+
+    /**
+     * Get the weight tables of every pattern at a stage of the game, one
+     * after the other (the table of a pattern starts at its TABLE_OFFSETS).
+     */
+    public short[] getTables(int stage)
+    {
+        return tables[stage];
+    }
+
+    /**
+     * Get the weight of a move more than the opponent at a stage of the game.
+     */
+    public int getMobilityWeight(int stage)
+    {
+        return mobilityWeights[stage];
+    }
+
+    /**
+     * Get the weight of being the player who can expect to play last at a stage of the game.
+     */
+    public int getParityWeight(int stage)
+    {
+        return parityWeights[stage];
+    }
+
+    /**
+     * Set the weight of a move more than the opponent, and of being the
+     * player who can expect to play last, at a stage of the game.
+     */
+    public void setFeatureWeights(int stage, short mobilityWeight, short parityWeight)
+    {
+        mobilityWeights[stage] = mobilityWeight;
+        parityWeights[stage] = parityWeight;
+    }
+
+    /**
+     * Get the number of entries of the weight table of a pattern.
+     */
+    public static int getTableSize(int pattern)
+    {
+        int entries = 1;
+        for (int i = 0; i < PATTERNS[pattern].length; i++) {
+            entries *= 3;
+        }
+
+        return entries;
+    }
+
+    /**
+     * Fill a buffer from a channel.
+     *
+     * @throws IOException If the channel ends first.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer bytes) throws IOException
+    {
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes) < 0) {
+                throw new IOException("The weights file ends too soon.");
+            }
+        }
+    }
+
+    /**
+     * Write the default weights to a file (the file given on the command
+     * line, or the application's weights file).
+     */
+    public static void main(String[] args)
+    {
+        File file = (args.length > 0) ? new File(args[0]) : new File(FOLDER, SIZE + "x" + SIZE + ".weights");
+        try {
+            createDefault().write(file);
+            System.out.println("Default weights written to " + file + ".");
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.HashMap;
+
+/**
+ * A command-line tool that checks and measures the rules of the game.
+ * It counts the positions reached after every possible sequence of a
+ * number of turns from the starting position of a game (a "perft" count),
+ * compares the counts with the ones given by the original tile-by-tile
+ * rules of the Game class, and reports how many positions per second
+ * were generated.
+ *
+ * A player that cannot move passes, and that pass counts as a turn.
+ * A game that is over before the last turn counts as one position.
+ *
+ * To run it: java Perft [maximum depth] [board size ...]
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class Perft
+{
+    // static field - For every board size, the number of positions reached after
+    // 1, 2, 3, ... turns, as counted with the original rules of the Game class
+    private static final HashMap<Integer, long[]> REFERENCE_COUNTS = new HashMap<>();
+
+    static {
+        REFERENCE_COUNTS.put(4, new long[] {4L, 12L, 44L, 128L, 424L, 1256L, 3624L, 9116L, 20044L, 36540L,
+                                            50704L, 57436L, 59564L, 59980L, 60060L});
+        REFERENCE_COUNTS.put(6, new long[] {4L, 12L, 56L, 244L, 1364L, 7604L, 47740L, 308716L, 2114912L, 14976792L,
+                                            108820292L});
+        REFERENCE_COUNTS.put(8, new long[] {4L, 12L, 56L, 244L, 1396L, 8200L, 55092L, 390216L, 3005288L, 24571284L});
+        REFERENCE_COUNTS.put(10, new long[] {4L, 12L, 56L, 244L, 1396L, 8200L, 55180L, 392268L, 3045812L, 25168320L});
+
+        // From 12 x 12 upwards, no line of play this short reaches an edge of the board
+        for (int size = 12; size <= 20; size += 2) {
+            REFERENCE_COUNTS.put(size, new long[] {4L, 12L, 56L, 244L, 1396L, 8200L, 55180L, 392268L, 3046196L, 25179208L});
+        }
+    }
+
+    // The default depth, and the board sizes checked by default
+    // (the ones offered by the application)
+    private static final int DEFAULT_DEPTH = 9;
+    private static final int[] DEFAULT_SIZES = {4, 6, 8, 10, 12, 14, 16, 18, 20};
+
+    // The position the turns are played on
+    private Position position;
+
+    // For every number of turns still to take, the squares that can be played on
+    private int[][] moves;
+
+    /**
+     * Constructor for objects of class Perft
+     */
+    public Perft(int size)
+    {
+        position = Position.create(size);
+    }
+
+    /**
+     * Count the positions reached after every possible sequence
+     * of a number of turns from the starting position.
+     */
+    public long count(int depth)
+    {
+        int size = position.getSize();
+        moves = new int[depth + 1][size * size];
+        return countLeaves(depth);
+    }
+
+    /**
+     * Count the positions reached after every possible sequence
+     * of a number of turns from the current position.
+     */
+    private long countLeaves(int depth)
+    {
+        if (depth == 0) {
+            return 1;
+        }
+
+        int[] squares = moves[depth];
+        int count = position.getLegalMoves(squares);
+
+        if (count == 0) {
+            // Either the game is over, or the only possible turn is a pass
+            if (depth == 1 || ! position.canMove(1 - position.getSideToMove())) {
+                return 1;
+            }
+
+            position.pass();
+            long leaves = countLeaves(depth - 1);
+            position.undo();
+            return leaves;
+        }
+
+        if (depth == 1) {
+            return count;
+        }
+
+        long leaves = 0;
+        for (int i = 0; i < count; i++) {
+            position.play(squares[i]);
+            leaves += countLeaves(depth - 1);
+            position.undo();
+        }
+
+        return leaves;
+    }
+
+    /**
+     * Get the number of positions reached after a number of turns on a
+     * board size, as counted with the original rules (-1 if it is unknown).
+     */
+    public static long getReferenceCount(int size, int depth)
+    {
+        long[] counts = REFERENCE_COUNTS.get(size);
+        if (counts == null || depth < 1 || depth > counts.length) {
+            return -1;
+        }
+
+        return counts[depth - 1];
+    }
+
+    /**
+     * Count the positions for every depth up to the maximum depth and every board
+     * size given on the command line, and report whether they are correct and how
+     * fast they were counted. Exits with status 1 if any count is wrong.
+     */
+    public static void main(String[] args)
+    {
+        int maxDepth = DEFAULT_DEPTH;
+        int[] sizes = DEFAULT_SIZES;
+        try {
+            if (args.length > 0) {
+                maxDepth = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                sizes = new int[args.length - 1];
+                for (int i = 1; i < args.length; i++) {
+                    sizes[i - 1] = Integer.parseInt(args[i]);
+                }
+            }
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Usage: java Perft [maximum depth] [board size ...]");
+            System.exit(2);
+        }
+
+        boolean allCorrect = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+
+        System.out.printf("%4s %5s %14s %14s %10s %14s  %s%n", "Size", "Depth", "Positions", "Expected", "Time (ms)", "Positions/s", "Result");
+        for (int size : sizes) {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long start = System.nanoTime();
+                long nodes = new Perft(size).count(depth);
+                long time = System.nanoTime() - start;
+
+                long expected = getReferenceCount(size, depth);
+                String result = "unchecked";
+                if (expected >= 0) {
+                    result = (nodes == expected) ? "OK" : "WRONG";
+                    allCorrect &= (nodes == expected);
+                }
+
+                totalNodes += nodes;
+                totalTime += time;
+                System.out.printf("%4d %5d %14d %14s %10.1f %14.0f  %s%n",
+                                  size, depth, nodes, (expected >= 0) ? String.valueOf(expected) : "-",
+                                  time / 1e6, nodes / (time / 1e9), result);
+            }
+        }
+
+        System.out.printf("Total: %d positions in %.1f ms (%.0f positions/s)%n",
+                          totalNodes, totalTime / 1e6, totalNodes / (totalTime / 1e9));
+        if (! allCorrect) {
+            System.out.println("Some counts do not match the original rules.");
+            System.exit(1);
+        }
+    }
+}
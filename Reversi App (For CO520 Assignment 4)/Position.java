@@ -0,0 +1,476 @@
+import java.util.SplittableRandom;
+
+/**
+ * A GUI-free model of the discs on a size x size Reversi board, and of
+ * whose turn it is to play. The tiles are numbered row by row, so the
+ * tile at (row, column) is "square" (row * size + column).
+ *
+ * Boards small enough for every tile to fit in a long are modelled by a
+ * BitboardPosition, and larger ones by a WideBitboardPosition.
+ *
+ * Every position also has a (Zobrist) hash: the exclusive or of a random
+ * key for every disc on the board, and of one more key when white is to
+ * move. It is updated with every disc placed or flipped, so positions
+ * reached by different orders of moves can be recognised cheaply.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public abstract class Position
+{
+    // The colours of the discs (and of the player that plays them)
+    public static final int BLACK = 0;
+    public static final int WHITE = 1;
+
+    // The state of a tile that has no disc on it
+    public static final int EMPTY = -1;
+
+    // The "move" recorded when a player passes their turn
+    public static final int PASS = -1;
+
+    // static fields - The random keys hashed into a position for a black disc
+    // and for a white disc on each square, the key hashed in for both when a
+    // disc on a square is flipped, and the key hashed in when white is to move
+    private static final long[][] DISC_KEYS = new long[2][WideBitboardPosition.MAX_SIZE * WideBitboardPosition.MAX_SIZE];
+    protected static final long[] FLIP_KEYS = new long[WideBitboardPosition.MAX_SIZE * WideBitboardPosition.MAX_SIZE];
+    protected static final long WHITE_TO_MOVE_KEY;
+
+    static {
+        // A fixed seed, so that hashes are the same from one run to the next
+        SplittableRandom random = new SplittableRandom(520L);
+        for (int square = 0; square < FLIP_KEYS.length; square++) {
+            DISC_KEYS[BLACK][square] = random.nextLong();
+            DISC_KEYS[WHITE][square] = random.nextLong();
+            FLIP_KEYS[square] = DISC_KEYS[BLACK][square] ^ DISC_KEYS[WHITE][square];
+        }
+        WHITE_TO_MOVE_KEY = random.nextLong();
+    }
+
+    // The size of the board
+    // (The board is a size x size grid)
+    protected final int size;
+
+    // The colour of the player whose turn it is to play
+    protected int sideToMove;
+
+    // The square played at each turn taken so far (or PASS), so that turns can be taken back
+    // (A game never has more than two turns per tile, as two passes in a row end it.)
+    protected final int[] moveHistory;
+
+    // The number of turns taken so far
+    protected int plies;
+
+    // The hash of the position, and its hash before each turn taken so far
+    protected long hash;
+    protected final long[] hashHistory;
+
+    /**
+     * Constructor for objects of subclasses of class Position
+     */
+    protected Position(int size, int sideToMove)
+    {
+        this.size = size;
+        this.sideToMove = sideToMove;
+        moveHistory = new int[2 * size * size];
+        hashHistory = new long[moveHistory.length];
+        plies = 0;
+        hash = (sideToMove == WHITE) ? WHITE_TO_MOVE_KEY : 0;
+    }
+
+    /**
+     * Create the starting position of a game on a size x size board:
+     * four discs in the center (in an alternating pattern), with black
+     * to play first.
+     */
+    public static Position create(int size)
+    {
+        Position position = createEmpty(size, BLACK);
+
+        int half = size / 2;
+        position.setDisc(half - 1, half - 1, WHITE);
+        position.setDisc(half, half, WHITE);
+        position.setDisc(half - 1, half, BLACK);
+        position.setDisc(half, half - 1, BLACK);
+        return position;
+    }
+
+    /**
+     * Create a size x size board with no discs on it.
+     */
+    public static Position createEmpty(int size, int sideToMove)
+    {
+        if (size <= BitboardPosition.MAX_SIZE) {
+            return new BitboardPosition(size, 0, 0, sideToMove);
+        }
+
+        return new WideBitboardPosition(size, sideToMove);
+    }
+
+    /**
+     * Create a copy of this position, with the same discs and the same player
+     * to move (but no turns to take back), that can be changed independently.
+     */
+    public Position copy()
+    {
+        Position copy = createEmpty(size, sideToMove);
+        for (int square = 0; square < size * size; square++) {
+            int colour = getDisc(square);
+            if (colour != EMPTY) {
+                copy.setDisc(square, colour);
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Get the size of the board.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the colour of the player whose turn it is to play.
+     */
+    public int getSideToMove()
+    {
+        return sideToMove;
+    }
+
+    /**
+     * Set the colour of the player whose turn it is to play.
+     */
+    public void setSideToMove(int sideToMove)
+    {
+        if (sideToMove != this.sideToMove) {
+            hash ^= WHITE_TO_MOVE_KEY;
+        }
+        this.sideToMove = sideToMove;
+    }
+
+    /**
+     * Get the (Zobrist) hash of the position. Positions with the same discs
+     * and the same player to move have the same hash, however they were reached.
+     */
+    public long getHash()
+    {
+        return hash;
+    }
+
+    /**
+     * Get the hash the position would have if the board were turned or
+     * mirrored by one of its eight symmetries (see getSymmetricSquare).
+     * The hash of symmetry 0 (the board as it is) is getHash().
+     */
+    public long getHash(int symmetry)
+    {
+        long symmetricHash = (sideToMove == WHITE) ? WHITE_TO_MOVE_KEY : 0;
+        for (int square = 0; square < size * size; square++) {
+            int colour = getDisc(square);
+            if (colour != EMPTY) {
+                symmetricHash ^= DISC_KEYS[colour][getSymmetricSquare(square, symmetry)];
+            }
+        }
+
+        return symmetricHash;
+    }
+
+    /**
+     * Get the symmetry under which the position has the lowest hash (its
+     * "canonical" symmetry), which is the same for all eight symmetric
+     * versions of the position.
+     */
+    public int getCanonicalSymmetry()
+    {
+        int canonical = 0;
+        long lowestHash = hash;
+        for (int symmetry = 1; symmetry < 8; symmetry++) {
+            long symmetricHash = getHash(symmetry);
+            if (symmetricHash < lowestHash) {
+                lowestHash = symmetricHash;
+                canonical = symmetry;
+            }
+        }
+
+        return canonical;
+    }
+
+    /**
+     * Get the square a tile is moved to by one of the eight symmetries of
+     * the board: 0 leaves it where it is, 1 to 3 turn the board a quarter,
+     * a half and three quarters clockwise, and 4 to 7 mirror it left to
+     * right, top to bottom, along the main diagonal and along the other one.
+     */
+    public int getSymmetricSquare(int square, int symmetry)
+    {
+        return getSymmetricSquare(square, symmetry, size);
+    }
+
+    /**
+     * Get the square a tile of a size x size board is moved to by one of
+     * the eight symmetries of the board (see the method above).
+     */
+    public static int getSymmetricSquare(int square, int symmetry, int size)
+    {
+        int row = square / size;
+        int col = square % size;
+        int last = size - 1;
+        switch (symmetry) {
+            case 0:
+                return square;
+            case 1:
+                return col * size + (last - row);
+            case 2:
+                return (last - row) * size + (last - col);
+            case 3:
+                return (last - col) * size + row;
+            case 4:
+                return row * size + (last - col);
+            case 5:
+                return (last - row) * size + col;
+            case 6:
+                return col * size + row;
+            case 7:
+                return (last - col) * size + (last - row);
+            default:
+                throw new IllegalArgumentException("There is no symmetry " + symmetry + ".");
+        }
+    }
+
+    /**
+     * Get the symmetry that undoes one of the eight symmetries of the board.
+     */
+    public static int getInverseSymmetry(int symmetry)
+    {
+        // Only the quarter turns are not undone by themselves
+        if (symmetry == 1) {
+            return 3;
+        }
+        else if (symmetry == 3) {
+            return 1;
+        }
+
+        return symmetry;
+    }
+
+    /**
+     * Get the key hashed into a position for a disc of a colour on a square.
+     */
+    protected static long getDiscKey(int colour, int square)
+    {
+        return DISC_KEYS[colour][square];
+    }
+
+    /**
+     * Get the colour of the disc on a tile, or EMPTY if there is none.
+     */
+    public int getDisc(int row, int col)
+    {
+        return getDisc(row * size + col);
+    }
+
+    /**
+     * Place a disc of a colour on a tile (or remove it, if the colour is EMPTY),
+     * without capturing anything.
+     */
+    public void setDisc(int row, int col, int colour)
+    {
+        setDisc(row * size + col, colour);
+    }
+
+    /**
+     * Check if playing on a tile would be legal for the player to move,
+     * i.e. if it would capture at least one of the opponent's discs.
+     */
+    public boolean isLegal(int row, int col)
+    {
+        return isLegal(row * size + col);
+    }
+
+    /**
+     * Play a move on a tile for the player to move, flipping the
+     * captured discs and passing the turn to the opponent.
+     *
+     * @return The number of discs that were flipped
+     *         (0, with the position left unchanged, if the move is illegal).
+     */
+    public int play(int row, int col)
+    {
+        return play(row * size + col);
+    }
+
+    /**
+     * Get the number of turns taken (moves played or passed) on this position.
+     */
+    public int getPlies()
+    {
+        return plies;
+    }
+
+    /**
+     * Get the square played at the last turn taken,
+     * or PASS if it was passed or no turn has been taken.
+     */
+    public int getLastMove()
+    {
+        return (plies == 0) ? PASS : moveHistory[plies - 1];
+    }
+
+    /**
+     * Pass the turn to the opponent without playing.
+     */
+    public void pass()
+    {
+        recordTurn(PASS);
+        hash ^= WHITE_TO_MOVE_KEY;
+        sideToMove = 1 - sideToMove;
+    }
+
+    /**
+     * Take back the last turn taken (a move played or passed),
+     * restoring the discs and the player to move from before it.
+     *
+     * @throws  IllegalStateException  If no turn has been taken.
+     */
+    public void undo()
+    {
+        if (plies == 0) {
+            throw new IllegalStateException("There is no turn to take back.");
+        }
+
+        plies--;
+        sideToMove = 1 - sideToMove;
+        hash = hashHistory[plies];
+        if (moveHistory[plies] != PASS) {
+            undoMove(moveHistory[plies]);
+        }
+    }
+
+    /**
+     * Record the square played at the turn being taken (or PASS),
+     * and the hash of the position before it.
+     *
+     * @throws  IllegalStateException  If more turns have been taken than a game can have.
+     */
+    protected void recordTurn(int square)
+    {
+        if (plies == moveHistory.length) {
+            throw new IllegalStateException("A game cannot have more than " + plies + " turns.");
+        }
+
+        hashHistory[plies] = hash;
+        moveHistory[plies++] = square;
+    }
+
+    /**
+     * Check if the player to move can make a legal move.
+     */
+    public boolean canMove()
+    {
+        return canMove(sideToMove);
+    }
+
+    /**
+     * Check if the game is over, i.e. if neither player can make a legal move.
+     */
+    public boolean isGameOver()
+    {
+        return ! canMove(BLACK) && ! canMove(WHITE);
+    }
+
+    /**
+     * Get the colour of the disc on a square, or EMPTY if there is none.
+     */
+    public abstract int getDisc(int square);
+
+    /**
+     * Place a disc of a colour on a square (or remove it, if the colour is EMPTY),
+     * without capturing anything.
+     */
+    public void setDisc(int square, int colour)
+    {
+        int previous = getDisc(square);
+        if (previous != EMPTY) {
+            hash ^= DISC_KEYS[previous][square];
+        }
+        if (colour != EMPTY) {
+            hash ^= DISC_KEYS[colour][square];
+        }
+        placeDisc(square, colour);
+    }
+
+    /**
+     * Place a disc of a colour on a square (or remove it, if the colour
+     * is EMPTY) in the model of the discs, once the hash has been updated.
+     */
+    protected abstract void placeDisc(int square, int colour);
+
+    /**
+     * Get the number of discs of a colour on the board.
+     */
+    public abstract int countDiscs(int colour);
+
+    /**
+     * Check if playing on a square would be legal for the player to move.
+     */
+    public abstract boolean isLegal(int square);
+
+    /**
+     * Check if a colour can make a legal move. The legal moves of each colour are
+     * only computed again after the discs on the board have changed, so asking
+     * this (and whether the game is over) repeatedly costs next to nothing.
+     */
+    public abstract boolean canMove(int colour);
+
+    /**
+     * Get the number of legal moves a colour can make (its mobility).
+     */
+    public abstract int countLegalMoves(int colour);
+
+    /**
+     * Get the number of discs of a colour that can never be flipped, whatever
+     * is played: those that, along each of the four lines through them, are
+     * on a full line, at the edge of the board, or next to another such disc
+     * of their colour. (A few discs that can never be flipped for other
+     * reasons are not counted.)
+     */
+    public abstract int countStableDiscs(int colour);
+
+    /**
+     * Get the number of discs of a colour next to at least one empty tile
+     * (its frontier), which tend to give the opponent moves.
+     */
+    public abstract int countFrontierDiscs(int colour);
+
+    /**
+     * Fill an array with the squares the player to move can legally play on.
+     *
+     * @return The number of squares written to the array.
+     */
+    public abstract int getLegalMoves(int[] squares);
+
+    /**
+     * Play a move on a square for the player to move,
+     * updating the hash with every disc placed and flipped.
+     *
+     * @return The number of discs that were flipped
+     *         (0, with the position left unchanged, if the move is illegal).
+     */
+    public abstract int play(int square);
+
+    /**
+     * Fill an array with the squares of the discs flipped at the last
+     * turn taken (none if it was passed).
+     *
+     * @return The number of squares written to the array.
+     */
+    public abstract int getFlipped(int[] squares);
+
+    /**
+     * Take back a move played on a square by the player to move (who has
+     * already been made the player to move again), unflipping its discs.
+     */
+    protected abstract void undoMove(int square);
+}
@@ -26,12 +26,24 @@ public class Reversi
     // The names of the players
     protected JTextField[] playerNames;
     
+    // Whether the moves of each player are played by the computer
+    protected JCheckBox[] computerPlayers;
+    
     // The number of discs of each color on the board
     protected JLabel[] playersNumberOfDiscs;
     
     // The players' scores in the session
     protected JLabel[] playerScores;
     
+    // Whether the computer thinks while its opponent chooses their move
+    protected JCheckBoxMenuItem pondering;
+    
+    // The panel that shows how many moves, stable discs and frontier discs
+    // each player has (if it is switched on), and the labels of those numbers
+    // (one row per statistic, one column per player)
+    protected JPanel statisticsPanel;
+    protected JLabel[][] positionStatistics;
+    
     // The "Play" button
     protected JButton play;
     
@@ -47,12 +59,19 @@ public class Reversi
     // The panel that contains the board
     protected JPanel boardPanel;
     
+    // The boards made so far, by size (each is emptied and shown
+    // again for the next game of its size, rather than made again)
+    private HashMap<Integer, Board> boards;
+    
     // The size of the board
     protected int boardSize;
     
     // The current game session
     private Session gameSession;
     
+    // The game being played on the board (or null)
+    private Game game;
+    
     /**
      * Constructor for objects of class Reversi
      */
@@ -111,6 +130,10 @@ public class Reversi
         JComponent playerPanel = makePlayerPanel();
         contentPane.add(playerPanel, BorderLayout.WEST);
         
+        // Create and add the (hidden) statistics panel to the window
+        statisticsPanel = makeStatisticsPanel();
+        contentPane.add(statisticsPanel, BorderLayout.EAST);
+        
         // Create the panel that contains the board and
         // add it to the window
         boardPanel = makeBoardPanel();
@@ -152,6 +175,25 @@ public class Reversi
         menu.add(item);
         menu.addSeparator();
     
+        pondering = new JCheckBoxMenuItem("Think on Opponent's Time", true);
+        pondering.addActionListener(e -> { 
+            if (! pondering.isSelected() && game != null) {
+                game.stopPondering();
+            }
+        });
+        menu.add(pondering);
+        
+        JCheckBoxMenuItem statistics = new JCheckBoxMenuItem("Show Position Statistics", false);
+        statistics.addActionListener(e -> { 
+            statisticsPanel.setVisible(statistics.isSelected());
+            if (game != null) {
+                game.showStatistics();
+            }
+            frame.revalidate();
+        });
+        menu.add(statistics);
+        menu.addSeparator();
+    
         item = new JMenuItem("New Game Session");
         item.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_N, KeyEvent.CTRL_DOWN_MASK));
         item.addActionListener(e -> { startNewGameSession(); });
@@ -236,6 +278,8 @@ public class Reversi
         for (int i = 0; i < 2; i++) {
             playerNames[i].setEditable(true);
             playerNames[i].setText("");
+            computerPlayers[i].setSelected(false);
+            computerPlayers[i].setEnabled(true);
             playerScores[i].setText("0");
             playersNumberOfDiscs[i].setText("0");
         }
@@ -303,6 +347,7 @@ public class Reversi
                 Game restoredGame = new Game(this);
                 gameSession.addGame(restoredGame);
                 restoredGame.restore(restoredStateData);
+                game = restoredGame;
                 
                 sendNotification("The selected game session has been restored.", "Session Restored");
             }
@@ -363,7 +408,8 @@ public class Reversi
      * Generate the panel in the player panel that 
      * contains information about a particular player.
      */
-    private JPanel createPlayerContent(String player, JLabel noOfDiscs, JLabel score, JTextField nameField, Color foreground, Color background)
+    private JPanel createPlayerContent(String player, JLabel noOfDiscs, JLabel score, JTextField nameField, JCheckBox computerPlayer,
+                                       Color foreground, Color background)
     {
         // Create the panel that is going to contain
         // all the information about the player
@@ -407,6 +453,14 @@ public class Reversi
         namePanel.add(nameFieldLabel);
         namePanel.add(Box.createHorizontalStrut(5));
         namePanel.add(nameField);
+        namePanel.add(Box.createHorizontalStrut(10));
+        namePanel.add(computerPlayer);
+        
+        // Set up the check box that hands the player's moves over to the computer
+        computerPlayer.setFont(new Font("sans-serif", Font.BOLD, 13));
+        computerPlayer.setForeground(foreground);
+        computerPlayer.setBackground(background);
+        computerPlayer.setFocusPainted(false);
         
         // Add that panel into the main panel
         innerPanel.add(namePanel);
@@ -443,6 +497,7 @@ public class Reversi
         playerPanel.setBorder(BorderFactory.createMatteBorder(3, 3, 0, 3, Color.BLACK));
         
         playerNames = new JTextField[] {new JTextField(11), new JTextField(11)};
+        computerPlayers = new JCheckBox[] {new JCheckBox("Computer"), new JCheckBox("Computer")};
         playersNumberOfDiscs = new JLabel[] {new JLabel("0"), new JLabel("0")};
         playerScores = new JLabel[] {new JLabel("0"), new JLabel("0")};
         startButtonPanel = new JPanel();
@@ -451,16 +506,31 @@ public class Reversi
         final JTextField nameField1 = playerNames[0];
         JLabel noOfBlackDiscs = playersNumberOfDiscs[0];
         JLabel player1Score = playerScores[0];
-        JComponent innerPanel1 = createPlayerContent("Player 1 (Black)", noOfBlackDiscs, player1Score, nameField1, Color.WHITE, Color.BLACK);
+        JComponent innerPanel1 = createPlayerContent("Player 1 (Black)", noOfBlackDiscs, player1Score, nameField1, computerPlayers[0],
+                                                     Color.WHITE, Color.BLACK);
         innerPanel1.setBorder(new EmptyBorder(10, 6, 10, 6));
         
         // Create the player 2 panel of the player panel
         final JTextField nameField2 = playerNames[1];
         JLabel noOfWhiteDiscs = playersNumberOfDiscs[1];
         JLabel player2Score = playerScores[1];
-        JComponent innerPanel2 = createPlayerContent("Player 2 (White)", noOfWhiteDiscs, player2Score, nameField2, Color.BLACK, Color.WHITE);
+        JComponent innerPanel2 = createPlayerContent("Player 2 (White)", noOfWhiteDiscs, player2Score, nameField2, computerPlayers[1],
+                                                     Color.BLACK, Color.WHITE);
         innerPanel2.setBorder(new EmptyBorder(0, 6, 10, 4));
         
+        // Give a player that the computer plays for a name, if they have none
+        String[] computerNames = {"Computer (Black)", "Computer (White)"};
+        for (int i = 0; i < 2; i++) {
+            final JTextField nameField = playerNames[i];
+            final JCheckBox computerPlayer = computerPlayers[i];
+            final String computerName = computerNames[i];
+            computerPlayer.addActionListener(ev -> {
+                if (computerPlayer.isSelected() && nameField.isEditable() && nameField.getText().isEmpty()) {
+                    nameField.setText(computerName);
+                }
+            });
+        }
+        
         // Add the two panels into panel with grid layout for sizing
         JComponent panel = new JPanel();
         panel.setLayout(new GridLayout(2, 1));
@@ -524,13 +594,57 @@ public class Reversi
         return playerPanel;
     }
     
+    /**
+     * Make the statistics panel, which shows how many moves,
+     * stable discs and frontier discs each player has.
+     */
+    private JPanel makeStatisticsPanel()
+    {
+        String[] statistics = {"Moves: ", "Stable discs: ", "Frontier discs: "};
+        positionStatistics = new JLabel[statistics.length][2];
+        
+        // Create a grid with a row per statistic, and a column per player
+        JPanel innerPanel = new JPanel();
+        innerPanel.setLayout(new GridLayout(statistics.length + 1, 3, 12, 6));
+        innerPanel.setBorder(BorderFactory.createCompoundBorder(new LineBorder(Color.BLACK, 3),
+                                                                new EmptyBorder(12, 12, 12, 12)));
+        innerPanel.add(new JLabel(""));
+        String[] players = {"Black", "White"};
+        for (String player : players) {
+            JLabel playerLabel = new JLabel(player);
+            playerLabel.setFont(new Font("sans-serif", Font.BOLD, 14));
+            innerPanel.add(playerLabel);
+        }
+        
+        for (int i = 0; i < statistics.length; i++) {
+            JLabel statisticLabel = new JLabel(statistics[i]);
+            statisticLabel.setFont(new Font("sans-serif", Font.BOLD, 14));
+            innerPanel.add(statisticLabel);
+            for (int j = 0; j < 2; j++) {
+                positionStatistics[i][j] = new JLabel("0");
+                positionStatistics[i][j].setFont(new Font("sans-serif", Font.PLAIN, 14));
+                innerPanel.add(positionStatistics[i][j]);
+            }
+        }
+        
+        // Add that panel into a panel with flow layout for spacing
+        JPanel panel = new JPanel();
+        panel.setBorder(BorderFactory.createMatteBorder(3, 0, 0, 3, Color.BLACK));
+        panel.add(innerPanel);
+        panel.setVisible(false);
+        
+        return panel;
+    }
+    
     /**
      * Make the game board.
      */
     private JPanel makeBoardPanel()
     {
         // Create the board
+        boards = new HashMap<>();
         board = new Board(boardSize);
+        boards.put(boardSize, board);
         
         // Set the spacing around the board
         JPanel panel = new JPanel();
@@ -588,6 +702,8 @@ public class Reversi
         // In any case, update the status bar depending on the input that has or has not been entered
         if (playerNames[0].isEditable() == false && playerNames[1].isEditable() == false) {
             play.setEnabled(false);
+            computerPlayers[0].setEnabled(false);
+            computerPlayers[1].setEnabled(false);
             startNewGame();
         }
         else if (playerNames[0].getText().isEmpty() || playerNames[1].getText().isEmpty()) {
@@ -616,6 +732,7 @@ public class Reversi
         
         Game newGame = new Game(this);
         gameSession.addGame(newGame);
+        game = newGame;
         newGame.start();
         
         startButtonPanel.setVisible(false);
@@ -638,16 +755,32 @@ public class Reversi
     }
     
     /** 
-     * Replace the "board" shown in the application window.
+     * Replace the "board" shown in the application window with an empty
+     * board of the chosen size, abandoning the game that was played on it
+     * (if any). The board of that size made before is emptied and shown
+     * again, if there is one; the window is only laid out again if the
+     * size has changed.
      */
     protected void replaceBoard() {
-        Container contentPane = frame.getContentPane();
-        contentPane.remove(boardPanel);
-        boardPanel = makeBoardPanel();
-        adjustBoardPanelPadding();
-        contentPane.add(boardPanel, BorderLayout.CENTER);
-        frame.revalidate();
-        frame.repaint();
+        if (game != null) {
+            game.cancel();
+            game = null;
+        }
+        
+        Board newBoard = boards.get(boardSize);
+        if (newBoard == null) {
+            newBoard = new Board(boardSize);
+            boards.put(boardSize, newBoard);
+        }
+        newBoard.clear();
+        
+        if (newBoard != board) {
+            boardPanel.remove(board.getPanel());
+            board = newBoard;
+            boardPanel.add(board.getPanel(), BorderLayout.CENTER);
+            boardPanel.revalidate();
+            boardPanel.repaint();
+        }
     }
     
     /** 
@@ -0,0 +1,208 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A command-line tool that has the computer play games against itself,
+ * without the application window, on a pool of worker threads (one per
+ * processor by default), and writes every position it searched to shard
+ * files (see TrainingShard), with the score the search gave it and the
+ * outcome of its game, to train or tune evaluations on.
+ *
+ * The computer searches every move to a fixed depth, estimating positions
+ * by their patterns. The first few moves of every game are played at random,
+ * so that the games are all different. Each worker fills a large block of
+ * records in memory and hands it to a TrainingShardWriter when it is full,
+ * which starts a new shard every few megabytes.
+ *
+ * To run it: java SelfPlayGenerator [games] [depth] [workers] [folder] [megabytes per shard]
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class SelfPlayGenerator
+{
+    // The number of games, the depth of the search, the folder the shards
+    // are written to and the size of each shard (in megabytes), by default
+    private static final int DEFAULT_GAMES = 10000;
+    private static final int DEFAULT_DEPTH = 2;
+    private static final String DEFAULT_FOLDER = "training data";
+    private static final int DEFAULT_SHARD_MEGABYTES = 64;
+
+    // The size of the board
+    private static final int SIZE = 8;
+
+    // The number of turns played at random at the start of every game
+    private static final int RANDOM_TURNS = 8;
+
+    // The number of records each worker fills before writing them
+    // (a block of about 1.5 MB), and the largest number of positions
+    // of a game (after which a block must still have room for a game)
+    private static final int BLOCK_RECORDS = 1 << 16;
+    private static final int MAX_GAME_RECORDS = SIZE * SIZE;
+
+    // The number of entries in the transposition table of each worker (1 MB)
+    private static final int TABLE_ENTRIES = 1 << 16;
+
+    // The time a search is allowed, long enough for the depth to be the
+    // only limit (in milliseconds)
+    private static final long SEARCH_TIME_BUDGET = 3600000;
+
+    // The depth of the search, and what the positions are written to
+    private final int depth;
+    private final TrainingShardWriter writer;
+
+    // The number of games to play, and of games started so far (by all workers)
+    private int games;
+    private final AtomicInteger started;
+
+    /**
+     * Create a generator of positions searched to a depth, written by a writer.
+     */
+    public SelfPlayGenerator(int depth, TrainingShardWriter writer)
+    {
+        this.depth = depth;
+        this.writer = writer;
+        started = new AtomicInteger();
+    }
+
+    /**
+     * Play a number of games on a number of worker threads.
+     *
+     * @throws IOException If the positions cannot be written.
+     */
+    public void play(int games, int workers) throws IOException, InterruptedException
+    {
+        this.games = games;
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            futures.add(pool.submit(() -> {
+                playGames();
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        catch (ExecutionException e) {
+            throw new IOException("A game could not be played or recorded.", e.getCause());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Play games (on one worker) until enough have been started, writing
+     * their positions a block at a time.
+     */
+    private void playGames() throws IOException
+    {
+        AlphaBetaEngine engine = new AlphaBetaEngine(SEARCH_TIME_BUDGET, TABLE_ENTRIES);
+        engine.setMaxDepth(depth);
+        engine.setEndgameEmpties(0);
+        PatternEvaluator evaluator = PatternEvaluator.forSize(SIZE);
+        engine.setEvaluator((evaluator != null) ? evaluator : new PatternEvaluator(PatternWeights.createDefault()));
+
+        ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_RECORDS * TrainingShard.RECORD_BYTES);
+        int[] squares = new int[SIZE * SIZE];
+        for (int game = started.getAndIncrement(); game < games; game = started.getAndIncrement()) {
+            if (block.remaining() < MAX_GAME_RECORDS * TrainingShard.RECORD_BYTES) {
+                block.flip();
+                writer.write(block);
+                block.clear();
+            }
+            playGame(game, engine, squares, block);
+        }
+
+        block.flip();
+        writer.write(block);
+    }
+
+    /**
+     * Play one game, adding a record of every position searched to a block,
+     * and then the outcome of the game to each of them.
+     */
+    private void playGame(int game, AlphaBetaEngine engine, int[] squares, ByteBuffer block)
+    {
+        Random random = new Random(game);
+        BitboardPosition position = (BitboardPosition) Position.create(SIZE);
+        int firstRecord = block.position();
+        int turns = 0;
+        while (! position.isGameOver()) {
+            int count = position.getLegalMoves(squares);
+            if (count == 0) {
+                position.pass();
+            }
+            else if (turns < RANDOM_TURNS) {
+                position.play(squares[random.nextInt(count)]);
+            }
+            else {
+                int move = engine.search(position);
+                block.putLong(position.getBlack())
+                     .putLong(position.getWhite())
+                     .putInt(engine.getScore())
+                     .put((byte) 0)
+                     .put((byte) position.getSideToMove())
+                     .put((byte) move)
+                     .put((byte) engine.getDepth());
+                position.play(move);
+            }
+            turns++;
+        }
+
+        int blackDifference = position.countDiscs(Position.BLACK) - position.countDiscs(Position.WHITE);
+        for (int record = firstRecord; record < block.position(); record += TrainingShard.RECORD_BYTES) {
+            int sideToMove = block.get(record + TrainingShard.SIDE_TO_MOVE_OFFSET);
+            int outcome = (sideToMove == Position.BLACK) ? blackDifference : -blackDifference;
+            block.put(record + TrainingShard.OUTCOME_OFFSET, (byte) outcome);
+        }
+    }
+
+    /**
+     * Generate the positions given on the command line.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            int games = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+            int depth = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_DEPTH;
+            int workers = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            File folder = new File((args.length > 3) ? args[3] : DEFAULT_FOLDER);
+            long shardBytes = ((args.length > 4) ? Long.parseLong(args[4]) : DEFAULT_SHARD_MEGABYTES) << 20;
+
+            long start = System.nanoTime();
+            TrainingShardWriter writer = new TrainingShardWriter(folder, SIZE, shardBytes);
+            try (writer) {
+                new SelfPlayGenerator(depth, writer).play(games, workers);
+            }
+
+            // (The counts are final once the last shard has been closed)
+            double minutes = (System.nanoTime() - start) / 60e9;
+            System.out.printf("%d positions from %d games in %d shards, in %.1f s (%.0f positions per minute on %d workers)%n",
+                              writer.getRecords(), games, writer.getShards(), minutes * 60,
+                              writer.getRecords() / minutes, workers);
+            System.out.println("Positions written to " + folder + ".");
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+        catch (IOException | InterruptedException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
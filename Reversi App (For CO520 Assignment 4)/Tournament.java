@@ -0,0 +1,390 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A command-line tool that plays a tournament between two computer players,
+ * without the application window, playing many games at once on a pool of
+ * worker threads. Each game's result is written to a file (one line per
+ * game, in CSV form) as soon as it is over, and at the end the score of
+ * each player, the number of games played per second and how busy the
+ * processors were are reported.
+ *
+ * A player is given as "random" (a random legal move), "depth:N" (a search
+ * N turns deep, to the end of the game included) or "time:N" (a search of
+ * about N milliseconds per move, which solves the end of the game),
+ * "pattern:N" or "neural:N" (the same search, estimating 8 x 8 positions
+ * from their patterns - see PatternEvaluator - or by a neural network - see
+ * NeuralEvaluator) or "mcts:N" (a Monte Carlo tree search of about N
+ * milliseconds per move).
+ * The first few moves of every game are played at random, and every such
+ * opening is played twice, with each player taking black once, so that
+ * neither player is favoured by the openings.
+ *
+ * To run it: java Tournament [player 1] [player 2] [games] [workers] [board size] [results file]
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class Tournament
+{
+    // The number of games, the board size and the file results are written to, by default
+    private static final int DEFAULT_GAMES = 100;
+    private static final int DEFAULT_SIZE = 8;
+    private static final String DEFAULT_RESULTS_FILE = "tournament.csv";
+
+    // The number of turns played at random at the start of every game
+    private static final int RANDOM_TURNS = 4;
+
+    // The number of entries in the transposition tables of each player, for its
+    // search and for its endgame solver (a power of two - 1 MB each, as many
+    // players search at once)
+    private static final int TABLE_ENTRIES = 1 << 16;
+
+    // The number of nodes in the tree of each Monte Carlo player (18 MB)
+    private static final int MCTS_NODES = 1 << 20;
+
+    // The time a search to a fixed depth is allowed, long enough
+    // for the depth to be the only limit (in milliseconds)
+    private static final long DEPTH_SEARCH_TIME_BUDGET = 3600000;
+
+    // The players, as given on the command line
+    private final String[] players;
+
+    // The size of the board
+    // (The board is a size x size grid)
+    private final int size;
+
+    // The number of games to play, and the number started (by all workers),
+    // won by each player, drawn, and played so far (updated by the workers,
+    // as their games start and end)
+    private int games;
+    private final AtomicInteger started;
+    private final int[] wins;
+    private int draws;
+    private int played;
+
+    // The file the results are written to
+    private BufferedWriter results;
+
+    /**
+     * Create a tournament between two players on size x size boards.
+     */
+    public Tournament(String firstPlayer, String secondPlayer, int size)
+    {
+        if (size < 4 || size > WideBitboardPosition.MAX_SIZE || size % 2 != 0) {
+            throw new IllegalArgumentException("The board size must be even, and between 4 and " + WideBitboardPosition.MAX_SIZE + ".");
+        }
+
+        players = new String[] {firstPlayer, secondPlayer};
+        this.size = size;
+        started = new AtomicInteger();
+        wins = new int[2];
+
+        // Check that both players can be created before any game is played
+        createPlayer(firstPlayer);
+        createPlayer(secondPlayer);
+    }
+
+    /**
+     * Play a number of games (rounded up to an even number) on a number of
+     * worker threads, writing their results to a file.
+     *
+     * @throws IOException If the results cannot be written.
+     */
+    public void play(int games, int workers, File resultsFile) throws IOException, InterruptedException
+    {
+        this.games = games + games % 2;
+        OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+        long startCpuTime = getProcessCpuTime(system);
+        long start = System.nanoTime();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultsFile))) {
+            results = writer;
+            results.write("game,black,white,black discs,white discs,winner,turns,milliseconds");
+            results.newLine();
+
+            ForkJoinPool pool = new ForkJoinPool(workers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < workers; worker++) {
+                futures.add(pool.submit(() -> {
+                    playGames();
+                    return null;
+                }));
+            }
+
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            catch (ExecutionException e) {
+                throw new IOException("A game could not be played or recorded.", e.getCause());
+            }
+            finally {
+                pool.shutdownNow();
+            }
+        }
+
+        long time = System.nanoTime() - start;
+        long cpuTime = getProcessCpuTime(system) - startCpuTime;
+        System.out.printf("%s: %d wins, %s: %d wins, %d draws (%.1f%% for %s)%n",
+                          players[0], wins[0], players[1], wins[1], draws,
+                          100.0 * (wins[0] + draws / 2.0) / played, players[0]);
+        System.out.printf("%d games in %.1f s (%.2f games/s) on %d workers%n",
+                          played, time / 1e9, played / (time / 1e9), workers);
+        if (cpuTime >= 0) {
+            int processors = system.getAvailableProcessors();
+            System.out.printf("CPU utilisation: %.0f%% of %d processors%n",
+                              100.0 * cpuTime / time / processors, processors);
+        }
+    }
+
+    /**
+     * Play games (on one worker) until enough have been started, with the
+     * same two players, which forget each game before the next one.
+     */
+    private void playGames() throws IOException
+    {
+        Player[] workerPlayers = {createPlayer(players[0]), createPlayer(players[1])};
+        for (int game = started.getAndIncrement(); game < games; game = started.getAndIncrement()) {
+            workerPlayers[0].clear(game);
+            workerPlayers[1].clear(game);
+            playGame(game, workerPlayers);
+        }
+    }
+
+    /**
+     * Play one game of the tournament, and record its result. Games are played
+     * in pairs with the same opening: in the first, the first player is black.
+     */
+    private void playGame(int game, Player[] workerPlayers) throws IOException
+    {
+        long start = System.nanoTime();
+        int blackPlayer = game % 2;
+        Random random = new Random(game / 2);
+        Player[] sides = {workerPlayers[blackPlayer], workerPlayers[1 - blackPlayer]};
+
+        Position position = Position.create(size);
+        int[] squares = new int[size * size];
+        int turns = 0;
+        while (! position.isGameOver()) {
+            int count = position.getLegalMoves(squares);
+            if (count == 0) {
+                position.pass();
+            }
+            else if (turns < RANDOM_TURNS) {
+                position.play(squares[random.nextInt(count)]);
+            }
+            else {
+                position.play(sides[position.getSideToMove()].chooseMove(position));
+            }
+            turns++;
+        }
+
+        int blackDiscs = position.countDiscs(Position.BLACK);
+        int whiteDiscs = position.countDiscs(Position.WHITE);
+        int winner = -1;
+        if (blackDiscs > whiteDiscs) {
+            winner = blackPlayer;
+        }
+        else if (whiteDiscs > blackDiscs) {
+            winner = 1 - blackPlayer;
+        }
+
+        record(game, blackPlayer, blackDiscs, whiteDiscs, winner, turns, (System.nanoTime() - start) / 1000000L);
+    }
+
+    /**
+     * Count the result of a game, and write it to the results file
+     * (at once, so that it is kept even if the tournament is stopped).
+     *
+     * @param winner The player who won (0 or 1), or -1 for a draw.
+     */
+    private synchronized void record(int game, int blackPlayer, int blackDiscs, int whiteDiscs,
+                                     int winner, int turns, long time) throws IOException
+    {
+        if (winner < 0) {
+            draws++;
+        }
+        else {
+            wins[winner]++;
+        }
+        played++;
+
+        results.write(game + "," + players[blackPlayer] + "," + players[1 - blackPlayer] + "," +
+                      blackDiscs + "," + whiteDiscs + "," + ((winner < 0) ? "draw" : players[winner]) + "," +
+                      turns + "," + time);
+        results.newLine();
+        results.flush();
+
+        if (played % Math.max(1, games / 10) == 0) {
+            System.out.println(played + " of " + games + " games played.");
+        }
+    }
+
+    /**
+     * Create a player from its description ("random", "depth:N", "time:N",
+     * "pattern:N", "neural:N" or "mcts:N"). A worker creates each of its
+     * players once, and clears it before every game.
+     */
+    private static Player createPlayer(String description)
+    {
+        try {
+            if (description.equals("random")) {
+                Random random = new Random();
+                int[] squares = new int[WideBitboardPosition.MAX_SIZE * WideBitboardPosition.MAX_SIZE];
+                return new Player() {
+                    @Override
+                    public int chooseMove(Position position)
+                    {
+                        return squares[random.nextInt(position.getLegalMoves(squares))];
+                    }
+
+                    @Override
+                    public void clear(long seed)
+                    {
+                        random.setSeed(seed);
+                    }
+                };
+            }
+            else if (description.startsWith("depth:")) {
+                AlphaBetaEngine engine = new AlphaBetaEngine(DEPTH_SEARCH_TIME_BUDGET, TABLE_ENTRIES);
+                engine.setMaxDepth(Integer.parseInt(description.substring(6)));
+                engine.setEndgameEmpties(0);
+                return createPlayer(engine);
+            }
+            else if (description.startsWith("time:")) {
+                AlphaBetaEngine engine = new AlphaBetaEngine(Long.parseLong(description.substring(5)), TABLE_ENTRIES);
+                engine.setEndgameTableEntries(TABLE_ENTRIES);
+                return createPlayer(engine);
+            }
+            else if (description.startsWith("pattern:")) {
+                AlphaBetaEngine engine = new AlphaBetaEngine(Long.parseLong(description.substring(8)), TABLE_ENTRIES);
+                engine.setEndgameTableEntries(TABLE_ENTRIES);
+                engine.setEvaluator(new PatternEvaluator(getPatternWeights()));
+                return createPlayer(engine);
+            }
+            else if (description.startsWith("neural:")) {
+                NeuralNetwork network = NeuralNetwork.forSize(NeuralNetwork.SIZE);
+                if (network == null) {
+                    throw new IllegalArgumentException("There is no neural network (" + NeuralNetwork.FILE + ") to play with.");
+                }
+                AlphaBetaEngine engine = new AlphaBetaEngine(Long.parseLong(description.substring(7)), TABLE_ENTRIES);
+                engine.setEndgameTableEntries(TABLE_ENTRIES);
+                engine.setEvaluator(new NeuralEvaluator(network));
+                return createPlayer(engine);
+            }
+            else if (description.startsWith("mcts:")) {
+                return createPlayer(new MctsEngine(Long.parseLong(description.substring(5)), MCTS_NODES));
+            }
+        }
+        catch (NumberFormatException e) {
+            // The description is reported below
+        }
+
+        throw new IllegalArgumentException("\"" + description + "\" is not a player (random, depth:N, time:N, pattern:N, neural:N or mcts:N).");
+    }
+
+    /**
+     * Create a player that chooses its moves with a computer player,
+     * which forgets its earlier searches before every game.
+     */
+    private static Player createPlayer(Engine engine)
+    {
+        return new Player() {
+            @Override
+            public int chooseMove(Position position)
+            {
+                return engine.search(position);
+            }
+
+            @Override
+            public void clear(long seed)
+            {
+                engine.clear();
+            }
+        };
+    }
+
+    /**
+     * Get the weights of the application's pattern evaluation
+     * (or the default weights, if it has none).
+     */
+    private static PatternWeights getPatternWeights()
+    {
+        PatternWeights weights = PatternWeights.forSize(PatternWeights.SIZE);
+        return (weights != null) ? weights : PatternWeights.createDefault();
+    }
+
+    /**
+     * Get the processor time used by this program so far, in nanoseconds
+     * (or -1, if the Java platform cannot tell).
+     */
+    private static long getProcessCpuTime(OperatingSystemMXBean system)
+    {
+        if (system instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) system).getProcessCpuTime();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Play the tournament given on the command line.
+     */
+    public static void main(String[] args)
+    {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            System.err.println("Usage: java Tournament [player 1] [player 2] [games] [workers] [board size] [results file]");
+            System.err.println("A player is random, depth:N, time:N, pattern:N, neural:N or mcts:N (milliseconds per move).");
+            System.exit(2);
+        }
+
+        try {
+            int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+            int workers = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            int size = (args.length > 4) ? Integer.parseInt(args[4]) : DEFAULT_SIZE;
+            File resultsFile = new File((args.length > 5) ? args[5] : DEFAULT_RESULTS_FILE);
+
+            new Tournament(args[0], args[1], size).play(games, workers, resultsFile);
+            System.out.println("Results written to " + resultsFile + ".");
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+        catch (IOException | InterruptedException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // ---- Inner interface ----
+
+    /**
+     * A player of the tournament, which chooses the move to play
+     * on a position (on which the player to move can move), and
+     * forgets the last game before the next one is played.
+     */
+    private interface Player
+    {
+        int chooseMove(Position position);
+
+        /**
+         * Forget the last game (with a seed for any random moves of the next one).
+         */
+        void clear(long seed);
+    }
+}
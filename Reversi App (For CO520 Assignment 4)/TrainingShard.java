@@ -0,0 +1,151 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A file of positions from self-play games (see SelfPlayGenerator), to
+ * train or tune evaluations on. Every position is a record of the same
+ * length, so that a shard can be read (or split between threads) without
+ * parsing it, and shards of many games can simply be put side by side.
+ *
+ * The file is mapped into memory rather than read, like an OpeningBook.
+ *
+ * File layout: a header (the int MAGIC, the board size as an int and the
+ * number of records as a long), then RECORD_BYTES bytes per position: the
+ * bitboards of the black and white discs (longs), the score the search gave
+ * the position (an int, for the player to move), the disc difference at the
+ * end of the game (for the player to move), the colour to move, the square
+ * played and the depth of the search (0 if it was not searched), as bytes.
+ * All of it is big-endian.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class TrainingShard
+{
+    // The first four bytes of every shard ("RVTD")
+    public static final int MAGIC = 0x52565444;
+
+    // The number of bytes of the header and of each record
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 24;
+
+    // Where each field of a record starts
+    public static final int BLACK_OFFSET = 0;
+    public static final int WHITE_OFFSET = 8;
+    public static final int SCORE_OFFSET = 16;
+    public static final int OUTCOME_OFFSET = 20;
+    public static final int SIDE_TO_MOVE_OFFSET = 21;
+    public static final int MOVE_OFFSET = 22;
+    public static final int DEPTH_OFFSET = 23;
+
+    // The size of the boards of the positions
+    private final int size;
+
+    // The number of records, and the mapped file
+    private final long records;
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Open the shard in a file.
+     *
+     * @throws IOException If the file cannot be read, or is not a complete shard.
+     */
+    public TrainingShard(File file) throws IOException
+    {
+        try (RandomAccessFile shard = new RandomAccessFile(file, "r");
+             FileChannel channel = shard.getChannel()) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be mapped into memory.");
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a training shard.");
+        }
+        size = buffer.getInt(4);
+        records = buffer.getLong(8);
+        if (records < 0 || HEADER_BYTES + records * RECORD_BYTES != buffer.capacity()) {
+            throw new IOException(file + " is not a complete training shard.");
+        }
+    }
+
+    /**
+     * Get the size of the boards of the positions.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the number of positions in the shard.
+     */
+    public long getRecords()
+    {
+        return records;
+    }
+
+    /**
+     * Get the bitboard of the black discs of a position.
+     */
+    public long getBlack(int record)
+    {
+        return buffer.getLong(HEADER_BYTES + record * RECORD_BYTES + BLACK_OFFSET);
+    }
+
+    /**
+     * Get the bitboard of the white discs of a position.
+     */
+    public long getWhite(int record)
+    {
+        return buffer.getLong(HEADER_BYTES + record * RECORD_BYTES + WHITE_OFFSET);
+    }
+
+    /**
+     * Get the score the search gave a position, for the player to move
+     * (see AlphaBetaEngine.getScore), or 0 if it was not searched.
+     */
+    public int getScore(int record)
+    {
+        return buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + SCORE_OFFSET);
+    }
+
+    /**
+     * Get the number of discs the player to move in a position had
+     * more than the opponent at the end of the game.
+     */
+    public int getOutcome(int record)
+    {
+        return buffer.get(HEADER_BYTES + record * RECORD_BYTES + OUTCOME_OFFSET);
+    }
+
+    /**
+     * Get the colour to move in a position.
+     */
+    public int getSideToMove(int record)
+    {
+        return buffer.get(HEADER_BYTES + record * RECORD_BYTES + SIDE_TO_MOVE_OFFSET);
+    }
+
+    /**
+     * Get the square played in a position.
+     */
+    public int getMove(int record)
+    {
+        return buffer.get(HEADER_BYTES + record * RECORD_BYTES + MOVE_OFFSET);
+    }
+
+    /**
+     * Get the depth a position was searched to (0 if it was not searched).
+     */
+    public int getDepth(int record)
+    {
+        return buffer.get(HEADER_BYTES + record * RECORD_BYTES + DEPTH_OFFSET);
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes the records of positions (see TrainingShard) to shard files in a
+ * folder, starting a new shard when the current one reaches a number of
+ * bytes. The records are written in large blocks, each filled by one of
+ * the threads producing them and written at once through the shard's
+ * channel, so that many threads can share the writer without waiting on
+ * one another for long.
+ *
+ * The number of records in the header of a shard is written when the
+ * shard is closed.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class TrainingShardWriter implements AutoCloseable
+{
+    // The folder the shards are written to, the size of the boards of
+    // the positions, and the largest number of bytes of a shard
+    private final File folder;
+    private final int size;
+    private final long shardBytes;
+
+    // The shard being written (or null), its number, and the number
+    // of records written to it
+    private FileChannel channel;
+    private int shard;
+    private long records;
+
+    // The number of records and shards written
+    private long totalRecords;
+    private int shards;
+
+    /**
+     * Create a writer of shards of positions on size x size boards, of up to
+     * a number of bytes each, to a folder (numbering them after any there).
+     *
+     * @throws IOException If the folder cannot be created.
+     */
+    public TrainingShardWriter(File folder, int size, long shardBytes) throws IOException
+    {
+        if (shardBytes < TrainingShard.HEADER_BYTES + TrainingShard.RECORD_BYTES) {
+            throw new IllegalArgumentException("A shard must have room for at least one record.");
+        }
+        if (! folder.isDirectory() && ! folder.mkdirs()) {
+            throw new IOException("The folder " + folder + " could not be created.");
+        }
+
+        this.folder = folder;
+        this.size = size;
+        this.shardBytes = shardBytes;
+        while (getShardFile(shard).exists()) {
+            shard++;
+        }
+    }
+
+    /**
+     * Write a block of whole records (from its position to its limit).
+     * A block is never split between two shards.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    public synchronized void write(ByteBuffer block) throws IOException
+    {
+        int blockRecords = block.remaining() / TrainingShard.RECORD_BYTES;
+        if (block.remaining() % TrainingShard.RECORD_BYTES != 0) {
+            throw new IllegalArgumentException("A block must hold whole records.");
+        }
+        if (blockRecords == 0) {
+            return;
+        }
+
+        long bytes = TrainingShard.HEADER_BYTES + (records + blockRecords) * TrainingShard.RECORD_BYTES;
+        if (channel != null && records > 0 && bytes > shardBytes) {
+            closeShard();
+        }
+        if (channel == null) {
+            openShard();
+        }
+
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        records += blockRecords;
+        totalRecords += blockRecords;
+    }
+
+    /**
+     * Get the number of records written.
+     */
+    public synchronized long getRecords()
+    {
+        return totalRecords;
+    }
+
+    /**
+     * Get the number of shards written.
+     */
+    public synchronized int getShards()
+    {
+        return shards;
+    }
+
+    /**
+     * Close the shard being written.
+     *
+     * @throws IOException If its header cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (channel != null) {
+            closeShard();
+        }
+    }
+
+    /**
+     * Start the next shard, with a header that does not count its records yet.
+     */
+    private void openShard() throws IOException
+    {
+        channel = new RandomAccessFile(getShardFile(shard), "rw").getChannel();
+        channel.truncate(0);
+        records = 0;
+        shards++;
+        writeHeader();
+    }
+
+    /**
+     * Count the records of the shard in its header, and close it.
+     */
+    private void closeShard() throws IOException
+    {
+        try {
+            channel.position(0);
+            writeHeader();
+        }
+        finally {
+            channel.close();
+            channel = null;
+            shard++;
+        }
+    }
+
+    /**
+     * Write the header of the shard at the channel's position.
+     */
+    private void writeHeader() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(TrainingShard.HEADER_BYTES);
+        header.putInt(TrainingShard.MAGIC).putInt(size).putLong(records).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Get the file of a shard.
+     */
+    private File getShardFile(int number)
+    {
+        return new File(folder, String.format("shard-%05d.bin", number));
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+/**
+ * A fixed-size table of the results of searching positions, looked up
+ * by the hash of a position, so that a position reached again through
+ * a different order of moves does not have to be searched again.
+ *
+ * The table is kept in two arrays of longs (the hash of the position in
+ * each entry, and its result packed into one long), so that filling it
+ * creates no objects. When two positions fall on the same entry, the
+ * result of the deeper search is kept, unless it is left over from an
+ * earlier search.
+ *
+ * Several threads can share the table without locking it. Each entry
+ * keeps the hash of its position exclusive-or'ed with its result, so an
+ * entry half-written by one thread while another reads it (a new result
+ * with an old hash, or the other way around) does not match any position
+ * and is simply missed.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class TranspositionTable
+{
+    // The kinds of score stored: the exact score of a position, a score that
+    // the exact one is at least (lower bound) or at most (upper bound)
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    // static fields - Where each part of a result is packed in a long: the score
+    // (bits 0 to 31), the best move plus one (32 to 43), the depth searched
+    // (44 to 51), the kind of score (52 and 53) and the search it was stored by (54 to 61)
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 44;
+    private static final int BOUND_SHIFT = 52;
+    private static final int GENERATION_SHIFT = 54;
+    private static final long MOVE_MASK = 0xFFFL;
+    private static final long DEPTH_MASK = 0xFFL;
+    private static final long BOUND_MASK = 0x3L;
+    private static final long GENERATION_MASK = 0xFFL;
+
+    // The hash of the position in each entry (exclusive-or'ed with its result),
+    // and its packed result (0 when the entry is empty, as every result has a kind of score)
+    private final long[] keys;
+    private final long[] results;
+
+    // The entry of a hash is found by masking the hash's lowest bits
+    private final int mask;
+
+    // The number of the current search (modulo 256)
+    private int generation;
+
+    /**
+     * Create an empty table with a number of entries (a power of two).
+     */
+    public TranspositionTable(int entries)
+    {
+        if (entries <= 0 || (entries & (entries - 1)) != 0) {
+            throw new IllegalArgumentException("The number of entries (" + entries + ") must be a power of two.");
+        }
+
+        keys = new long[entries];
+        results = new long[entries];
+        mask = entries - 1;
+        generation = 0;
+    }
+
+    /**
+     * Get the number of entries in the table.
+     */
+    public int getEntries()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Start a new search, whose results replace those of earlier searches
+     * whatever their depth.
+     */
+    public void newSearch()
+    {
+        generation = (generation + 1) & (int) GENERATION_MASK;
+    }
+
+    /**
+     * Empty the table.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, 0);
+        Arrays.fill(results, 0);
+    }
+
+    /**
+     * Look up the result stored for a position.
+     *
+     * @return The packed result, to be read with getScore, getMove, getDepth and
+     *         getBound, or 0 if there is none.
+     */
+    public long probe(long hash)
+    {
+        int index = (int) hash & mask;
+        long result = results[index];
+        return ((keys[index] ^ result) == hash) ? result : 0;
+    }
+
+    /**
+     * Store the result of searching a position, unless its entry holds
+     * the result of a deeper search made during the current search.
+     *
+     * @param move The best move found (or PASS if there is none).
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+     */
+    public void store(long hash, int depth, int score, int bound, int move)
+    {
+        int index = (int) hash & mask;
+        long stored = results[index];
+        if (stored != 0 && getGeneration(stored) == generation && getDepth(stored) > depth) {
+            return;
+        }
+
+        long result = (score & 0xFFFFFFFFL)
+                      | ((move + 1) & MOVE_MASK) << MOVE_SHIFT
+                      | (depth & DEPTH_MASK) << DEPTH_SHIFT
+                      | (bound & BOUND_MASK) << BOUND_SHIFT
+                      | (generation & GENERATION_MASK) << GENERATION_SHIFT;
+        keys[index] = hash ^ result;
+        results[index] = result;
+    }
+
+    /**
+     * Get the score of a packed result.
+     */
+    public static int getScore(long result)
+    {
+        return (int) result;
+    }
+
+    /**
+     * Get the best move of a packed result (or PASS).
+     */
+    public static int getMove(long result)
+    {
+        return (int) ((result >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+    /**
+     * Get the depth searched of a packed result.
+     */
+    public static int getDepth(long result)
+    {
+        return (int) ((result >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    /**
+     * Get the kind of score of a packed result (EXACT, LOWER_BOUND or UPPER_BOUND).
+     */
+    public static int getBound(long result)
+    {
+        return (int) ((result >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    /**
+     * Get the number of the search that stored a packed result.
+     */
+    private static int getGeneration(long result)
+    {
+        return (int) ((result >>> GENERATION_SHIFT) & GENERATION_MASK);
+    }
+}
@@ -0,0 +1,170 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A BatchEvaluator that estimates several positions at once with the
+ * (incubating) Vector API: each lane of a vector holds one position,
+ * and every step of the estimate (the legal moves, the indices of the
+ * patterns, and the weights looked up for them) is taken for all the
+ * lanes by one instruction. Only BatchEvaluator.create should create
+ * it, as its class cannot be loaded without the jdk.incubator.vector
+ * module.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class VectorBatchEvaluator extends BatchEvaluator
+{
+    // The widest vectors of longs the processor has, and vectors
+    // of ints with the same number of lanes
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.length() * Integer.SIZE));
+
+    // The number of bits a bitboard is shifted by to move every disc one tile
+    // in each of the eight directions (N, NE, E, SE, S, SW, W, NW), and the
+    // masks that stop discs from wrapping around the edges of the board
+    // (as in BitboardPosition, for 8 x 8 boards)
+    private static final int[] SHIFTS = {-8, -7, 1, 9, 8, 7, -1, -9};
+    private static final long NOT_FIRST_COLUMN = 0xFEFEFEFEFEFEFEFEL;
+    private static final long NOT_LAST_COLUMN = 0x7F7F7F7F7F7F7F7FL;
+    private static final long[] MASKS = {-1L, NOT_FIRST_COLUMN, NOT_FIRST_COLUMN, NOT_FIRST_COLUMN,
+                                         -1L, NOT_LAST_COLUMN, NOT_LAST_COLUMN, NOT_LAST_COLUMN};
+
+    // The index looked up in each lane (the weights are loaded from
+    // an array of indices, not from a vector of them)
+    private final int[] laneIndices;
+
+    /**
+     * Create an evaluator that estimates several positions at once.
+     */
+    public VectorBatchEvaluator(PatternWeights weights)
+    {
+        super(weights);
+        laneIndices = new int[LONGS.length()];
+    }
+
+    @Override
+    public boolean isVectorized()
+    {
+        return true;
+    }
+
+    /**
+     * Estimate a number of positions, a vector of them at a time (and the
+     * few left over at the end one after the other).
+     */
+    @Override
+    public void evaluate(long[] black, long[] white, int[] sidesToMove, int[] scores, int count)
+    {
+        int bound = LONGS.loopBound(count);
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector blackBits = LongVector.fromArray(LONGS, black, i);
+            LongVector whiteBits = LongVector.fromArray(LONGS, white, i);
+
+            // The weights of the stage of the game of each position
+            IntVector discs = toInts(bitCount(blackBits.or(whiteBits)));
+            discs.intoArray(laneIndices, 0);
+            IntVector stageOffset = IntVector.fromArray(INTS, stageOffsets, 0, laneIndices, 0);
+            IntVector mobilityWeight = IntVector.fromArray(INTS, mobilityWeights, 0, laneIndices, 0);
+            IntVector parityWeight = IntVector.fromArray(INTS, parityWeights, 0, laneIndices, 0);
+
+            // The patterns are read from the low and high halves of the bitboards
+            IntVector blackLow = toInts(blackBits);
+            IntVector blackHigh = toInts(blackBits.lanewise(VectorOperators.LSHR, 32));
+            IntVector whiteLow = toInts(whiteBits);
+            IntVector whiteHigh = toInts(whiteBits.lanewise(VectorOperators.LSHR, 32));
+
+            IntVector score = IntVector.zero(INTS);
+            for (int place = 0; place < PatternWeights.PLACE_SQUARES.length; place++) {
+                IntVector index = stageOffset.add(PatternWeights.TABLE_OFFSETS[PatternWeights.PLACE_PATTERNS[place]]);
+                int power = 1;
+                for (int square : PatternWeights.PLACE_SQUARES[place]) {
+                    IntVector blackHalf = (square < 32) ? blackLow : blackHigh;
+                    IntVector whiteHalf = (square < 32) ? whiteLow : whiteHigh;
+                    int shift = square & 31;
+                    IntVector digits = blackHalf.lanewise(VectorOperators.LSHR, shift).and(1)
+                                       .add(whiteHalf.lanewise(VectorOperators.LSHR, shift).and(1).lanewise(VectorOperators.LSHL, 1));
+                    index = index.add(digits.mul(power));
+                    power *= 3;
+                }
+                index.intoArray(laneIndices, 0);
+                score = score.add(IntVector.fromArray(INTS, tables, 0, laneIndices, 0));
+            }
+
+            IntVector mobility = toInts(bitCount(legalMoves(blackBits, whiteBits))
+                                        .sub(bitCount(legalMoves(whiteBits, blackBits))));
+            score = score.add(mobility.mul(mobilityWeight));
+
+            // The score is for black, or white (BLACK is 0 and WHITE is 1), and the
+            // player to move can expect to play last with an odd number of empty tiles
+            IntVector sign = IntVector.fromArray(INTS, sidesToMove, i).mul(-2).add(1);
+            IntVector parity = discs.neg().add(SQUARES).and(1).mul(2).sub(1);
+            score.mul(sign).add(parity.mul(parityWeight)).intoArray(scores, i);
+        }
+
+        evaluateEach(black, white, sidesToMove, scores, bound, count);
+    }
+
+    /**
+     * Compute the legal moves of a player in every lane (see BitboardPosition.legalMoves).
+     */
+    private static LongVector legalMoves(LongVector own, LongVector opponent)
+    {
+        LongVector empty = own.or(opponent).not();
+        LongVector moves = LongVector.zero(LONGS);
+
+        for (int direction = 0; direction < 8; direction++) {
+            int shift = SHIFTS[direction];
+            long mask = MASKS[direction];
+
+            LongVector across = opponent.and(mask);
+            LongVector run = shift(own, shift, mask).and(opponent);
+            run = run.or(across.and(shift(run, shift, mask)));
+            LongVector acrossTwo = across.and(shift(across, shift, mask));
+            run = run.or(acrossTwo.and(shift(run, 2 * shift, -1L)));
+            LongVector acrossFour = acrossTwo.and(shift(acrossTwo, 2 * shift, -1L));
+            run = run.or(acrossFour.and(shift(run, 4 * shift, -1L)));
+            moves = moves.or(shift(run, shift, mask).and(empty));
+        }
+
+        return moves;
+    }
+
+    /**
+     * Move every disc of every lane by a number of bits (left if positive,
+     * right if negative), keeping only the tiles of a mask.
+     */
+    private static LongVector shift(LongVector bits, int shift, long mask)
+    {
+        LongVector shifted = (shift > 0) ? bits.lanewise(VectorOperators.LSHL, shift)
+                                         : bits.lanewise(VectorOperators.LSHR, -shift);
+        return shifted.and(mask);
+    }
+
+    /**
+     * Count the bits set in every lane (in parallel, in the bits of the lane).
+     */
+    private static LongVector bitCount(LongVector bits)
+    {
+        LongVector pairs = bits.sub(bits.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+        LongVector nibbles = pairs.and(0x3333333333333333L)
+                                  .add(pairs.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+        LongVector bytes = nibbles.add(nibbles.lanewise(VectorOperators.LSHR, 4)).and(0x0F0F0F0F0F0F0F0FL);
+        LongVector sum = bytes.add(bytes.lanewise(VectorOperators.LSHR, 8));
+        sum = sum.add(sum.lanewise(VectorOperators.LSHR, 16));
+        sum = sum.add(sum.lanewise(VectorOperators.LSHR, 32));
+        return sum.and(0x7F);
+    }
+
+    /**
+     * Keep the low 32 bits of every lane, as ints.
+     */
+    private static IntVector toInts(LongVector longs)
+    {
+        return (IntVector) longs.convertShape(VectorOperators.L2I, INTS, 0);
+    }
+}
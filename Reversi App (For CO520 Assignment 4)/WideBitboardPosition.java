@@ -0,0 +1,559 @@
+/**
+ * A GUI-free model of the discs on a Reversi board too large for every
+ * tile to fit in a single long. The tiles occupied by each colour are kept
+ * in a bitboard spread over several longs ("words"), in which bit
+ * (row * size + column) is set when the tile holds a disc of that colour.
+ * Legal moves are computed by shifting and masking all the words of a
+ * bitboard at once, as a BitboardPosition does with a single long.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class WideBitboardPosition extends Position
+{
+    // The largest board (size x size) that can be modelled, so that moving
+    // every disc one tile in any direction shifts a word by less than 64 bits
+    public static final int MAX_SIZE = 62;
+
+    // static fields - The change in row and in column when moving one tile
+    // in each of the eight directions (N, NE, E, SE, S, SW, W, NW)
+    private static final int[] ROW_STEPS = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int[] COL_STEPS = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    // static field - For every board size that has been used, the tiles that
+    // are on the board followed by the masks that stop discs from wrapping
+    // around the edges of the board when they move in each direction
+    private static final long[][][] MASKS = new long[MAX_SIZE + 1][][];
+
+    // The number of longs used by each bitboard
+    private final int words;
+
+    // The tiles on the board, and the masks used when moving discs in each direction
+    private final long[] boardMask;
+    private final long[][] masks;
+
+    // The number of bits a bitboard is shifted by to move every disc one tile in each direction
+    private final int[] shifts;
+
+    // The tiles occupied by black discs and by white discs
+    private final long[] black;
+    private final long[] white;
+
+    // The discs flipped at each turn taken so far, one bitboard after the other
+    private final long[] flippedHistory;
+
+    // The tiles each colour can legally play on, whether there are any, and whether
+    // they are outdated (They are only recomputed, once, after the discs on the board change.)
+    private final long[] blackMoves;
+    private final long[] whiteMoves;
+    private boolean blackCanMove;
+    private boolean whiteCanMove;
+    private boolean blackMovesOutdated;
+    private boolean whiteMovesOutdated;
+
+    // Bitboards reused by every call to the move generator
+    private final long[] empty;
+    private final long[] candidates;
+    private final long[] shifted;
+
+    // Bitboards reused by every count of stable and frontier discs
+    private final long[] filled;
+    private final long[][] anchored;
+    private final long[] forwardEdge;
+    private final long[] backwardEdge;
+    private final long[] forwardFull;
+    private final long[] backwardFull;
+    private final long[] stable;
+    private final long[] previousStable;
+    private final long[] lineStable;
+
+    /**
+     * Create a size x size board with no discs on it.
+     */
+    public WideBitboardPosition(int size, int sideToMove)
+    {
+        super(size, sideToMove);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("A " + size + " x " + size + " board is not supported.");
+        }
+
+        words = (size * size + 63) / 64;
+        long[][] sizeMasks = getMasks(size);
+        boardMask = sizeMasks[0];
+        masks = new long[8][];
+        System.arraycopy(sizeMasks, 1, masks, 0, 8);
+        shifts = new int[] {-size, -size + 1, 1, size + 1, size, size - 1, -1, -size - 1};
+
+        black = new long[words];
+        white = new long[words];
+        flippedHistory = new long[moveHistory.length * words];
+        blackMoves = new long[words];
+        whiteMoves = new long[words];
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+        empty = new long[words];
+        candidates = new long[words];
+        shifted = new long[words];
+        filled = new long[words];
+        anchored = new long[4][words];
+        forwardEdge = new long[words];
+        backwardEdge = new long[words];
+        forwardFull = new long[words];
+        backwardFull = new long[words];
+        stable = new long[words];
+        previousStable = new long[words];
+        lineStable = new long[words];
+    }
+
+    /**
+     * Get the masks used on a size x size board, computing them
+     * the first time a board of that size is created.
+     */
+    private static synchronized long[][] getMasks(int size)
+    {
+        if (MASKS[size] == null) {
+            int words = (size * size + 63) / 64;
+            long[] boardMask = new long[words];
+            long[] notFirstColumn = new long[words];
+            long[] notLastColumn = new long[words];
+
+            for (int square = 0; square < size * size; square++) {
+                long bit = 1L << square;
+                boardMask[square >>> 6] |= bit;
+                if (square % size != 0) {
+                    notFirstColumn[square >>> 6] |= bit;
+                }
+                if (square % size != size - 1) {
+                    notLastColumn[square >>> 6] |= bit;
+                }
+            }
+
+            MASKS[size] = new long[][] {boardMask,
+                                        boardMask, notFirstColumn, notFirstColumn, notFirstColumn,
+                                        boardMask, notLastColumn, notLastColumn, notLastColumn};
+        }
+
+        return MASKS[size];
+    }
+
+    /**
+     * Get the number of longs used by each bitboard.
+     */
+    public int getWords()
+    {
+        return words;
+    }
+
+    /**
+     * Get the bitboard of the tiles a colour can legally play on.
+     * (The returned array must not be modified.)
+     */
+    public long[] getLegalMoves(int colour)
+    {
+        if (colour == BLACK) {
+            if (blackMovesOutdated) {
+                blackCanMove = legalMoves(black, white, blackMoves);
+                blackMovesOutdated = false;
+            }
+            return blackMoves;
+        }
+
+        if (whiteMovesOutdated) {
+            whiteCanMove = legalMoves(white, black, whiteMoves);
+            whiteMovesOutdated = false;
+        }
+        return whiteMoves;
+    }
+
+    // The following methods are implementations of the
+    // abstract methods inherited from the superclass.
+
+    @Override
+    public int getDisc(int square)
+    {
+        if (testBit(black, square)) {
+            return BLACK;
+        }
+        else if (testBit(white, square)) {
+            return WHITE;
+        }
+
+        return EMPTY;
+    }
+
+    @Override
+    protected void placeDisc(int square, int colour)
+    {
+        long bit = 1L << square;
+        int word = square >>> 6;
+        black[word] &= ~bit;
+        white[word] &= ~bit;
+        if (colour == BLACK) {
+            black[word] |= bit;
+        }
+        else if (colour == WHITE) {
+            white[word] |= bit;
+        }
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+    }
+
+    @Override
+    public int countDiscs(int colour)
+    {
+        long[] discs = (colour == BLACK) ? black : white;
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(discs[i]);
+        }
+
+        return count;
+    }
+
+    @Override
+    public boolean isLegal(int square)
+    {
+        return testBit(getLegalMoves(sideToMove), square);
+    }
+
+    @Override
+    public boolean canMove(int colour)
+    {
+        getLegalMoves(colour);
+        return (colour == BLACK) ? blackCanMove : whiteCanMove;
+    }
+
+    @Override
+    public int countLegalMoves(int colour)
+    {
+        long[] moves = getLegalMoves(colour);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(moves[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Compute the discs of a colour that can never be flipped as a
+     * BitboardPosition does (see BitboardPosition.stableDiscs), with
+     * every word of the bitboards at once.
+     */
+    @Override
+    public int countStableDiscs(int colour)
+    {
+        long[] own = (colour == BLACK) ? black : white;
+        for (int i = 0; i < words; i++) {
+            filled[i] = black[i] | white[i];
+        }
+
+        // For each line (N-S, NE-SW, E-W and SE-NW), the tiles that cannot be
+        // flipped along it: those on a full line, and those at either end of it
+        for (int line = 0; line < 4; line++) {
+            int forward = line;
+            int backward = line + 4;
+            shift(boardMask, shifts[backward], masks[backward], forwardEdge);
+            shift(boardMask, shifts[forward], masks[forward], backwardEdge);
+            for (int i = 0; i < words; i++) {
+                forwardEdge[i] = boardMask[i] & ~forwardEdge[i];
+                backwardEdge[i] = boardMask[i] & ~backwardEdge[i];
+                forwardFull[i] = filled[i] & forwardEdge[i];
+                backwardFull[i] = filled[i] & backwardEdge[i];
+            }
+
+            for (int step = 1; step < size; step++) {
+                shift(forwardFull, shifts[backward], masks[backward], shifted);
+                for (int i = 0; i < words; i++) {
+                    forwardFull[i] |= filled[i] & shifted[i];
+                }
+                shift(backwardFull, shifts[forward], masks[forward], shifted);
+                for (int i = 0; i < words; i++) {
+                    backwardFull[i] |= filled[i] & shifted[i];
+                }
+            }
+
+            for (int i = 0; i < words; i++) {
+                anchored[line][i] = (forwardFull[i] & backwardFull[i]) | forwardEdge[i] | backwardEdge[i];
+            }
+        }
+
+        for (int i = 0; i < words; i++) {
+            stable[i] = 0;
+        }
+        boolean growing = true;
+        while (growing) {
+            System.arraycopy(stable, 0, previousStable, 0, words);
+            System.arraycopy(own, 0, stable, 0, words);
+            for (int line = 0; line < 4; line++) {
+                shift(previousStable, shifts[line], masks[line], lineStable);
+                shift(previousStable, shifts[line + 4], masks[line + 4], shifted);
+                for (int i = 0; i < words; i++) {
+                    stable[i] &= anchored[line][i] | lineStable[i] | shifted[i];
+                }
+            }
+
+            growing = false;
+            for (int i = 0; i < words; i++) {
+                growing |= stable[i] != previousStable[i];
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(stable[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int countFrontierDiscs(int colour)
+    {
+        long[] own = (colour == BLACK) ? black : white;
+        // (The move generator's candidates are only used while it runs)
+        long[] nextToEmpty = candidates;
+        for (int i = 0; i < words; i++) {
+            empty[i] = ~(black[i] | white[i]) & boardMask[i];
+            nextToEmpty[i] = 0;
+        }
+        for (int direction = 0; direction < 8; direction++) {
+            shift(empty, shifts[direction], masks[direction], shifted);
+            for (int i = 0; i < words; i++) {
+                nextToEmpty[i] |= shifted[i];
+            }
+        }
+
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(own[i] & nextToEmpty[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int getLegalMoves(int[] squares)
+    {
+        return toSquares(getLegalMoves(sideToMove), squares);
+    }
+
+    @Override
+    public int play(int square)
+    {
+        if (testBit(black, square) || testBit(white, square)) {
+            return 0;
+        }
+
+        long[] own = (sideToMove == BLACK) ? black : white;
+        long[] opponent = (sideToMove == BLACK) ? white : black;
+
+        int offset = plies * words;
+        int captures = flips(own, opponent, square, offset);
+        if (captures == 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < words; i++) {
+            own[i] |= flippedHistory[offset + i];
+            opponent[i] &= ~flippedHistory[offset + i];
+        }
+        own[square >>> 6] |= 1L << square;
+        recordTurn(square);
+
+        long newHash = hash ^ getDiscKey(sideToMove, square) ^ WHITE_TO_MOVE_KEY;
+        for (int i = 0; i < words; i++) {
+            for (long bits = flippedHistory[offset + i]; bits != 0; bits &= bits - 1) {
+                newHash ^= FLIP_KEYS[(i << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        hash = newHash;
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+
+        sideToMove = 1 - sideToMove;
+        return captures;
+    }
+
+    @Override
+    public int getFlipped(int[] squares)
+    {
+        if (getLastMove() == PASS) {
+            return 0;
+        }
+
+        return toSquares(flippedHistory, (plies - 1) * words, squares);
+    }
+
+    @Override
+    protected void undoMove(int square)
+    {
+        long[] own = (sideToMove == BLACK) ? black : white;
+        long[] opponent = (sideToMove == BLACK) ? white : black;
+
+        int offset = plies * words;
+        for (int i = 0; i < words; i++) {
+            own[i] &= ~flippedHistory[offset + i];
+            opponent[i] |= flippedHistory[offset + i];
+        }
+        own[square >>> 6] &= ~(1L << square);
+
+        blackMovesOutdated = true;
+        whiteMovesOutdated = true;
+    }
+
+    // ---- Bitboard operations ----
+
+    /**
+     * Compute the bitboard of the empty tiles on which a player would
+     * capture at least one disc. For every direction, the player's discs
+     * are moved one tile at a time across the opponent's discs until the
+     * runs stop growing, and the empty tiles reached just after a run of
+     * them are legal moves.
+     *
+     * @return Whether there is at least one legal move.
+     */
+    private boolean legalMoves(long[] own, long[] opponent, long[] result)
+    {
+        for (int i = 0; i < words; i++) {
+            empty[i] = ~(own[i] | opponent[i]) & boardMask[i];
+            result[i] = 0;
+        }
+
+        long found = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            int shift = shifts[direction];
+            long[] mask = masks[direction];
+
+            shift(own, shift, mask, candidates);
+            long growing = 0;
+            for (int i = 0; i < words; i++) {
+                candidates[i] &= opponent[i];
+                growing |= candidates[i];
+            }
+            if (growing == 0) {
+                continue;
+            }
+
+            while (growing != 0) {
+                shift(candidates, shift, mask, shifted);
+                growing = 0;
+                for (int i = 0; i < words; i++) {
+                    long next = shifted[i] & opponent[i] & ~candidates[i];
+                    candidates[i] |= next;
+                    growing |= next;
+                }
+            }
+
+            for (int i = 0; i < words; i++) {
+                long reached = shifted[i] & empty[i];
+                result[i] |= reached;
+                found |= reached;
+            }
+        }
+
+        return found != 0;
+    }
+
+    /**
+     * Compute the opponent's discs that a player would flip by playing on
+     * a tile, by walking away from the tile in every direction.
+     *
+     * @param offset Where to put the bitboard of the flipped discs in the flipped history.
+     * @return The number of discs that would be flipped.
+     */
+    private int flips(long[] own, long[] opponent, int square, int offset)
+    {
+        for (int i = 0; i < words; i++) {
+            flippedHistory[offset + i] = 0;
+        }
+
+        int row = square / size;
+        int col = square % size;
+        int captures = 0;
+
+        for (int direction = 0; direction < 8; direction++) {
+            int rowStep = ROW_STEPS[direction];
+            int colStep = COL_STEPS[direction];
+            int step = shifts[direction];
+
+            int r = row + rowStep;
+            int c = col + colStep;
+            int tile = square + step;
+            int run = 0;
+            while (r >= 0 && r < size && c >= 0 && c < size && testBit(opponent, tile)) {
+                r += rowStep;
+                c += colStep;
+                tile += step;
+                run++;
+            }
+
+            if (run > 0 && r >= 0 && r < size && c >= 0 && c < size && testBit(own, tile)) {
+                captures += run;
+                for (int k = 1; k <= run; k++) {
+                    int captured = square + k * step;
+                    flippedHistory[offset + (captured >>> 6)] |= 1L << captured;
+                }
+            }
+        }
+
+        return captures;
+    }
+
+    /**
+     * Move every disc of a bitboard one tile in a direction,
+     * dropping the ones that would leave the board.
+     */
+    private void shift(long[] bits, int shift, long[] mask, long[] result)
+    {
+        if (shift > 0) {
+            for (int i = words - 1; i > 0; i--) {
+                result[i] = ((bits[i] << shift) | (bits[i - 1] >>> (64 - shift))) & mask[i];
+            }
+            result[0] = (bits[0] << shift) & mask[0];
+        }
+        else {
+            int amount = -shift;
+            for (int i = 0; i < words - 1; i++) {
+                result[i] = ((bits[i] >>> amount) | (bits[i + 1] << (64 - amount))) & mask[i];
+            }
+            result[words - 1] = (bits[words - 1] >>> amount) & mask[words - 1];
+        }
+    }
+
+    /**
+     * Check if a tile is set in a bitboard.
+     */
+    private static boolean testBit(long[] bits, int square)
+    {
+        return (bits[square >>> 6] & (1L << square)) != 0;
+    }
+
+    /**
+     * Fill an array with the squares of the tiles set in a bitboard.
+     *
+     * @return The number of squares written to the array.
+     */
+    private int toSquares(long[] bits, int[] squares)
+    {
+        return toSquares(bits, 0, squares);
+    }
+
+    /**
+     * Fill an array with the squares of the tiles set in a
+     * bitboard that starts at an offset in an array of longs.
+     *
+     * @return The number of squares written to the array.
+     */
+    private int toSquares(long[] bits, int offset, int[] squares)
+    {
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            long word = bits[offset + i];
+            while (word != 0) {
+                squares[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.Random;
+import reversi.benchmarks.SearchFixture;
+
+/**
+ * Searches a set of 8 x 8 mid-game positions, reached by random play,
+ * with an AlphaBetaEngine, one position after the other.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class AlphaBetaSearchFixture implements SearchFixture
+{
+    // The number of positions searched, in turn (a power of two),
+    // and the number of random moves played to reach each of them
+    private static final int POSITIONS = 8;
+    private static final int OPENING_MOVES = 20;
+
+    // The size of the board the positions are on
+    private static final int SIZE = 8;
+
+    // The computer player, and the positions it searches
+    private AlphaBetaEngine engine;
+    private Position[] positions;
+
+    // The position searched next
+    private int next;
+
+    @Override
+    public void setUp(int threads, int depth)
+    {
+        // The search stops at the depth, long before this time runs out
+        engine = new AlphaBetaEngine(3600000L);
+        engine.setThreads(threads);
+        engine.setMaxDepth(depth);
+
+        positions = new Position[POSITIONS];
+        Random random = new Random(SIZE);
+        int[] squares = new int[SIZE * SIZE];
+        int found = 0;
+        while (found < POSITIONS) {
+            Position position = Position.create(SIZE);
+            for (int turn = 0; turn < OPENING_MOVES && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(count)]);
+                }
+            }
+
+            if (position.countLegalMoves(position.getSideToMove()) > 1) {
+                positions[found++] = position;
+            }
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        engine.clear();
+    }
+
+    @Override
+    public int search()
+    {
+        int move = engine.search(positions[next]);
+        next = (next + 1) & (POSITIONS - 1);
+        return move;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.Random;
+import reversi.benchmarks.BatchFixture;
+
+/**
+ * Reaches 8 x 8 positions by random play, packs them into arrays, and
+ * estimates them all with a BatchEvaluator.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class BatchEvaluationFixture implements BatchFixture
+{
+    // The largest number of random moves played to reach a position
+    private static final int MAX_MOVES = 60;
+
+    // The packed positions, and their scores
+    private long[] black;
+    private long[] white;
+    private int[] sidesToMove;
+    private int[] scores;
+
+    // The evaluator
+    private BatchEvaluator evaluator;
+
+    @Override
+    public boolean setUp(int positions, boolean vector)
+    {
+        black = new long[positions];
+        white = new long[positions];
+        sidesToMove = new int[positions];
+        scores = new int[positions];
+        Random random = new Random(PatternWeights.SIZE);
+        int[] squares = new int[PatternWeights.SIZE * PatternWeights.SIZE];
+
+        for (int i = 0; i < positions; i++) {
+            BitboardPosition position = (BitboardPosition) Position.create(PatternWeights.SIZE);
+            int turns = random.nextInt(MAX_MOVES);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(count)]);
+                }
+            }
+            black[i] = position.getBlack();
+            white[i] = position.getWhite();
+            sidesToMove[i] = position.getSideToMove();
+        }
+
+        PatternWeights weights = PatternWeights.createDefault();
+        evaluator = vector ? BatchEvaluator.create(weights) : new BatchEvaluator(weights);
+        return evaluator.isVectorized();
+    }
+
+    @Override
+    public int evaluate()
+    {
+        evaluator.evaluate(black, white, sidesToMove, scores, scores.length);
+        int sum = 0;
+        for (int score : scores) {
+            sum += score;
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.Random;
+import reversi.benchmarks.EvaluationFixture;
+
+/**
+ * Reaches 8 x 8 positions by random play, each with an Evaluator (a
+ * PatternEvaluator, or a NeuralEvaluator with a network of random
+ * weights, which takes as long as a trained one) listening to it, and
+ * estimates them or plays moves on them.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class EvaluatorFixture implements EvaluationFixture
+{
+    // The number of positions used, in turn (a power of two), and the
+    // largest number of random moves played to reach a position
+    private static final int POSITIONS = 256;
+    private static final int MAX_MOVES = 50;
+
+    // The positions, their evaluators (or null) and a move that can be played on each
+    private BitboardPosition[] positions;
+    private Evaluator[] evaluators;
+    private int[] moves;
+
+    // The position used next
+    private int next;
+
+    @Override
+    public void setUp(String evaluator)
+    {
+        positions = new BitboardPosition[POSITIONS];
+        evaluators = new Evaluator[POSITIONS];
+        moves = new int[POSITIONS];
+        Evaluator prototype = null;
+        if (evaluator.equals("pattern")) {
+            prototype = new PatternEvaluator(PatternWeights.createDefault());
+        }
+        else if (evaluator.equals("neural")) {
+            prototype = new NeuralEvaluator(new NeuralNetwork(PatternWeights.SIZE));
+        }
+        Random random = new Random(PatternWeights.SIZE);
+        int[] squares = new int[PatternWeights.SIZE * PatternWeights.SIZE];
+
+        int found = 0;
+        while (found < POSITIONS) {
+            BitboardPosition position = (BitboardPosition) Position.create(PatternWeights.SIZE);
+            int turns = random.nextInt(MAX_MOVES);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(count)]);
+                }
+            }
+
+            int count = position.getLegalMoves(squares);
+            if (count > 0) {
+                positions[found] = position;
+                moves[found] = squares[random.nextInt(count)];
+                if (prototype != null) {
+                    evaluators[found] = prototype.copy();
+                    evaluators[found].attach(position);
+                }
+                found++;
+            }
+        }
+    }
+
+    @Override
+    public int evaluate()
+    {
+        Evaluator evaluator = evaluators[next];
+        next = (next + 1) & (POSITIONS - 1);
+        return evaluator.evaluate();
+    }
+
+    @Override
+    public int playAndUndo()
+    {
+        BitboardPosition position = positions[next];
+        int flipped = position.play(moves[next]);
+        position.undo();
+        next = (next + 1) & (POSITIONS - 1);
+        return flipped;
+    }
+}
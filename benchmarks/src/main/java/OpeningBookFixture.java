@@ -0,0 +1,84 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Random;
+import reversi.benchmarks.BookFixture;
+
+/**
+ * Writes an 8 x 8 OpeningBook of positions reached by random play to
+ * a temporary file, and looks up some of those positions in it.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class OpeningBookFixture implements BookFixture
+{
+    // The number of positions looked up, in turn (a power of two), and the
+    // largest number of random moves played to reach a position
+    private static final int POSITIONS = 1024;
+    private static final int MAX_MOVES = 30;
+
+    // The size of the board the positions are on
+    private static final int SIZE = 8;
+
+    // The opening book, and the positions looked up in it
+    private OpeningBook book;
+    private Position[] positions;
+
+    // The position looked up next
+    private int next;
+
+    @Override
+    public void setUp(int entries)
+    {
+        HashMap<Long, int[]> moves = new HashMap<>();
+        positions = new Position[POSITIONS];
+        Random random = new Random(SIZE);
+        int[] squares = new int[SIZE * SIZE];
+        int found = 0;
+        while (moves.size() < entries) {
+            Position position = Position.create(SIZE);
+            int turns = random.nextInt(MAX_MOVES);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(count)]);
+                }
+            }
+
+            int count = position.getLegalMoves(squares);
+            if (count > 0) {
+                int symmetry = position.getCanonicalSymmetry();
+                moves.put(position.getHash(symmetry), new int[] {position.getSymmetricSquare(squares[0], symmetry), 1});
+                positions[found++ % POSITIONS] = position.copy();
+            }
+        }
+
+        // Smaller books than the set of positions are looked up more than once
+        for (int i = found; i < POSITIONS; i++) {
+            positions[i] = positions[i % found];
+        }
+
+        try {
+            File file = File.createTempFile("benchmark", ".book");
+            file.deleteOnExit();
+            OpeningBook.write(file, SIZE, moves);
+            book = new OpeningBook(file);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int lookup()
+    {
+        Position position = positions[next];
+        next = (next + 1) & (POSITIONS - 1);
+        return book.lookup(position);
+    }
+}
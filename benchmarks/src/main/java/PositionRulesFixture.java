@@ -0,0 +1,94 @@
+import java.util.Random;
+import reversi.benchmarks.RulesFixture;
+
+/**
+ * Applies the rules of the game (a Position) to a set of mid-game
+ * positions reached by random play, one position after the other.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class PositionRulesFixture implements RulesFixture
+{
+    // The number of positions the rules are applied to, in turn
+    // (a power of two)
+    private static final int POSITIONS = 64;
+
+    // The positions, a legal move on each, and a tile of each to check
+    private Position[] positions;
+    private int[] moves;
+    private int[] tiles;
+
+    // The position the rules are applied to next
+    private int next;
+
+    @Override
+    public void setUp(int size)
+    {
+        positions = new Position[POSITIONS];
+        moves = new int[POSITIONS];
+        tiles = new int[POSITIONS];
+
+        Random random = new Random(size);
+        int[] squares = new int[size * size];
+        int found = 0;
+        while (found < POSITIONS) {
+            Position position = Position.create(size);
+            int turns = random.nextInt(size * size - 4);
+            for (int turn = 0; turn < turns && ! position.isGameOver(); turn++) {
+                int count = position.getLegalMoves(squares);
+                if (count == 0) {
+                    position.pass();
+                }
+                else {
+                    position.play(squares[random.nextInt(count)]);
+                }
+            }
+
+            int count = position.getLegalMoves(squares);
+            if (count > 0) {
+                positions[found] = position;
+                moves[found] = squares[random.nextInt(count)];
+                tiles[found] = random.nextInt(size * size);
+                found++;
+            }
+        }
+    }
+
+    @Override
+    public int capture()
+    {
+        Position position = positions[next];
+        int flipped = position.play(moves[next]);
+        position.undo();
+        next = (next + 1) & (POSITIONS - 1);
+        return flipped;
+    }
+
+    @Override
+    public boolean moveIsLegal()
+    {
+        Position position = changed(positions[next]);
+        boolean legal = position.isLegal(tiles[next]);
+        next = (next + 1) & (POSITIONS - 1);
+        return legal;
+    }
+
+    @Override
+    public boolean canMove()
+    {
+        Position position = changed(positions[next]);
+        next = (next + 1) & (POSITIONS - 1);
+        return position.canMove();
+    }
+
+    /**
+     * Put a disc back where it already is, so that the rules
+     * do not reuse the legal moves found before.
+     */
+    private static Position changed(Position position)
+    {
+        position.setDisc(0, position.getDisc(0));
+        return position;
+    }
+}
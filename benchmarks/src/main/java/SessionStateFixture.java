@@ -0,0 +1,105 @@
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import javax.swing.SwingUtilities;
+import reversi.benchmarks.StateFixture;
+
+/**
+ * Saves and restores the state of a session in which a game
+ * has been started in the application window.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class SessionStateFixture implements StateFixture
+{
+    // The number of moves played before the state is saved
+    private static final int OPENING_MOVES = 4;
+
+    // An instance of the application, the game started in it, and its session
+    private Reversi reversi;
+    private Game game;
+    private Session session;
+
+    // The file the session is saved to
+    private File saveFile;
+
+    @Override
+    public void setUp(int size, File saveFile)
+    {
+        if (GraphicsEnvironment.isHeadless()) {
+            throw new IllegalStateException("The state of a game is kept in the application window," +
+                                            " which cannot be opened without a display.");
+        }
+
+        this.saveFile = saveFile;
+        try {
+            SwingUtilities.invokeAndWait(() -> startGame(size));
+        }
+        catch (InterruptedException | InvocationTargetException e) {
+            throw new IllegalStateException("The game could not be started.", e);
+        }
+    }
+
+    /**
+     * Open the application window, start a game on a size x size board
+     * and play the first moves, without any player having to pass.
+     */
+    private void startGame(int size)
+    {
+        reversi = new Reversi();
+        reversi.boardSize = size;
+        reversi.replaceBoard();
+
+        game = new Game(reversi);
+        session = new Session();
+        session.addGame(game);
+        game.start();
+
+        // Each move is tried on a copy of the game's position first, and is only
+        // played (on both) if the other player can reply to it, so that the
+        // position kept here is always the one of the game being saved
+        Position position = Position.create(size);
+        int[] squares = new int[size * size];
+        for (int i = 0; i < OPENING_MOVES; i++) {
+            position.getLegalMoves(squares);
+            Position next = position.copy();
+            next.play(squares[0]);
+            if (! next.canMove()) {
+                break;
+            }
+            position = next;
+            game.play(squares[0] / size, squares[0] % size);
+        }
+    }
+
+    @Override
+    public Object getStateData()
+    {
+        return game.getStateData();
+    }
+
+    @Override
+    public boolean saveState()
+    {
+        return session.saveState(saveFile);
+    }
+
+    @Override
+    public Object getState() throws IOException
+    {
+        try {
+            return session.getState(saveFile);
+        }
+        catch (CorruptedSaveFileException e) {
+            throw new IOException("The session could not be read back from " + saveFile + ".", e);
+        }
+    }
+
+    @Override
+    public void tearDown()
+    {
+        SwingUtilities.invokeLater(() -> reversi.frame.dispose());
+    }
+}
@@ -0,0 +1,70 @@
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import reversi.benchmarks.PaintFixture;
+
+/**
+ * Paints a Board (every one of its tiles) into an off-screen image.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public class TilePaintFixture implements PaintFixture
+{
+    // The width of the board, in pixels, when it fills the window
+    private static final int BOARD_WIDTH = 640;
+
+    // The component the board is drawn on
+    private JComponent boardPanel;
+
+    // The image the board is painted into, and its graphics context
+    private BufferedImage canvas;
+    private Graphics2D graphics;
+
+    @Override
+    public void setUp(int size)
+    {
+        String folder = System.getProperty("reversi.images", "Reversi App (For CO520 Assignment 4)/disc images");
+        Image dark = loadImage(folder + "/dark disc side.png");
+        Image light = loadImage(folder + "/light disc side.png");
+
+        Board board = new Board(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if ((i + j) % 2 == 0) {
+                    board.setDisc(i, j, (i % 2 == 0) ? dark : light);
+                }
+            }
+        }
+        boardPanel = board.getPanel();
+        boardPanel.setSize(BOARD_WIDTH, BOARD_WIDTH);
+
+        canvas = new BufferedImage(BOARD_WIDTH, BOARD_WIDTH, BufferedImage.TYPE_INT_RGB);
+        graphics = canvas.createGraphics();
+    }
+
+    @Override
+    public void paintBoard()
+    {
+        boardPanel.paint(graphics);
+    }
+
+    /**
+     * Load the image of a side of a disc.
+     *
+     * @throws  IllegalStateException  If the image cannot be loaded.
+     */
+    private static Image loadImage(String path)
+    {
+        ImageIcon icon = new ImageIcon(path);
+        if (icon.getIconWidth() <= 0) {
+            throw new IllegalStateException("The image " + path + " could not be loaded." +
+                                            " (Run the benchmarks from the project folder," +
+                                            " or set the reversi.images system property.)");
+        }
+
+        return icon.getImage();
+    }
+}
@@ -0,0 +1,48 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures estimating a batch of positions with the pattern weights, one
+ * position after the other and a vector of them at a time (the Vector API's
+ * module is added to the forked virtual machine). The score is the time per
+ * position; the vectorised evaluation should take a fraction of the other's.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BatchBenchmark.POSITIONS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+public class BatchBenchmark
+{
+    // The number of positions in the batch
+    static final int POSITIONS = 4096;
+
+    // Whether the positions are estimated a vector at a time
+    @Param({"true", "false"})
+    public boolean vector;
+
+    // The positions, and their evaluator
+    private BatchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        fixture = Fixtures.create("BatchEvaluationFixture", BatchFixture.class);
+        if (fixture.setUp(POSITIONS, vector) != vector) {
+            throw new IllegalStateException("The Vector API is not available.");
+        }
+    }
+
+    @Benchmark
+    public int evaluate()
+    {
+        return fixture.evaluate();
+    }
+}
@@ -0,0 +1,25 @@
+package reversi.benchmarks;
+
+/**
+ * The batch evaluation of many positions at once.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface BatchFixture
+{
+    /**
+     * Reach a number of 8 x 8 positions by random play, and create an
+     * evaluator for them that uses the Vector API (if it can) or not.
+     *
+     * @return Whether the evaluator uses the Vector API.
+     */
+    boolean setUp(int positions, boolean vector);
+
+    /**
+     * Estimate every position.
+     *
+     * @return The sum of the scores.
+     */
+    int evaluate();
+}
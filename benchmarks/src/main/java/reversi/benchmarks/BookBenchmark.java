@@ -0,0 +1,43 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures looking a position up in an opening book, from a small book
+ * to one of millions of positions (whose file takes a few seconds to
+ * write before the measurements start). A lookup should take about a
+ * microsecond whatever the size of the book, and create no objects
+ * (which "-prof gc" shows).
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookBenchmark
+{
+    // The numbers of positions in the book
+    @Param({"1000", "1000000", "4000000"})
+    public int entries;
+
+    // The opening book, and the positions looked up in it
+    private BookFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        fixture = Fixtures.create("OpeningBookFixture", BookFixture.class);
+        fixture.setUp(entries);
+    }
+
+    @Benchmark
+    public int lookup()
+    {
+        return fixture.lookup();
+    }
+}
@@ -0,0 +1,23 @@
+package reversi.benchmarks;
+
+/**
+ * The opening book of the computer player.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface BookFixture
+{
+    /**
+     * Write an 8 x 8 opening book of a number of positions
+     * (reached by random play) to a file, and open it.
+     */
+    void setUp(int entries);
+
+    /**
+     * Look up the next of a set of positions that are in the book.
+     *
+     * @return The move found.
+     */
+    int lookup();
+}
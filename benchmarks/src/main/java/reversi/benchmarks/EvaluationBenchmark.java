@@ -0,0 +1,49 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures estimating a position from its patterns (which should take
+ * some tens of nanoseconds) or with the neural network, and playing and
+ * taking back a move with and without an evaluator keeping its patterns
+ * or the sums of the network's first layer up to date, which shows what
+ * the incremental updates cost the search.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark
+{
+    // The evaluator that listens to the positions
+    @Param({"pattern", "neural", "none"})
+    public String evaluator;
+
+    // The positions, and their evaluators
+    private EvaluationFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        fixture = Fixtures.create("EvaluatorFixture", EvaluationFixture.class);
+        fixture.setUp(evaluator);
+    }
+
+    @Benchmark
+    public int evaluate()
+    {
+        return evaluator.equals("none") ? 0 : fixture.evaluate();
+    }
+
+    @Benchmark
+    public int playAndUndo()
+    {
+        return fixture.playAndUndo();
+    }
+}
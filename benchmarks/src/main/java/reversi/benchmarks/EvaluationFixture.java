@@ -0,0 +1,31 @@
+package reversi.benchmarks;
+
+/**
+ * The evaluation of positions by the computer player.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface EvaluationFixture
+{
+    /**
+     * Reach a set of 8 x 8 positions by random play, with an evaluator
+     * ("pattern" or "neural") listening to each of them (or none, for
+     * "none", to measure the positions alone).
+     */
+    void setUp(String evaluator);
+
+    /**
+     * Estimate the next of the positions.
+     *
+     * @return The score of the position.
+     */
+    int evaluate();
+
+    /**
+     * Play a move on the next of the positions, and take it back.
+     *
+     * @return The number of discs flipped.
+     */
+    int playAndUndo();
+}
@@ -0,0 +1,38 @@
+package reversi.benchmarks;
+
+/**
+ * Creates the fixtures that the benchmarks drive the application through.
+ *
+ * The classes of the application are in the unnamed package (as BlueJ
+ * keeps them), and JMH only runs benchmarks declared in a named package,
+ * which cannot refer to classes in the unnamed package. So each benchmark
+ * talks to an interface declared here, implemented by a class in the
+ * unnamed package of this module that is loaded by its name.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+final class Fixtures
+{
+    /**
+     * Fixtures are only created by name.
+     */
+    private Fixtures()
+    {
+    }
+
+    /**
+     * Create an instance of the fixture class with a name.
+     *
+     * @throws  IllegalStateException  If the class cannot be loaded or instantiated.
+     */
+    static <T> T create(String className, Class<T> type)
+    {
+        try {
+            return type.cast(Class.forName(className).getDeclaredConstructor().newInstance());
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The fixture " + className + " could not be created.", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the painting of a whole board, tile by tile, as happens
+ * whenever the window is resized or uncovered.
+ *
+ * The images of the discs are read from the "disc images" folder of the
+ * application (set the reversi.images system property to read them from
+ * somewhere else).
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark
+{
+    // The board sizes offered by the application
+    @Param({"4", "6", "8", "10", "12", "14", "16", "18", "20"})
+    public int size;
+
+    // The board, and the image it is painted into
+    private PaintFixture fixture;
+
+    @Setup
+    public void setUp()
+    {
+        fixture = Fixtures.create("TilePaintFixture", PaintFixture.class);
+        fixture.setUp(size);
+    }
+
+    @Benchmark
+    public void paintBoard()
+    {
+        fixture.paintBoard();
+    }
+}
@@ -0,0 +1,21 @@
+package reversi.benchmarks;
+
+/**
+ * The painting of the tiles of the board.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface PaintFixture
+{
+    /**
+     * Prepare a size x size board, half covered in discs, whose tiles
+     * are as large as they are when the board fills the window.
+     */
+    void setUp(int size);
+
+    /**
+     * Paint every tile of the board into an off-screen image.
+     */
+    void paintBoard();
+}
@@ -0,0 +1,53 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the rules of the game: capturing discs, checking whether a
+ * move is legal, and checking whether the player to move can move at all
+ * (which the game does after every turn).
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark
+{
+    // The board sizes offered by the application
+    @Param({"4", "6", "8", "10", "12", "14", "16", "18", "20"})
+    public int size;
+
+    // The rules, and the positions they are applied to
+    private RulesFixture fixture;
+
+    @Setup
+    public void setUp()
+    {
+        fixture = Fixtures.create("PositionRulesFixture", RulesFixture.class);
+        fixture.setUp(size);
+    }
+
+    @Benchmark
+    public int capture()
+    {
+        return fixture.capture();
+    }
+
+    @Benchmark
+    public boolean moveIsLegal()
+    {
+        return fixture.moveIsLegal();
+    }
+
+    @Benchmark
+    public boolean canMove()
+    {
+        return fixture.canMove();
+    }
+}
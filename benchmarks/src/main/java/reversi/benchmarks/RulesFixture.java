@@ -0,0 +1,34 @@
+package reversi.benchmarks;
+
+/**
+ * The rules of the game, as used by every turn played on the board.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface RulesFixture
+{
+    /**
+     * Prepare a set of mid-game positions on a size x size board.
+     */
+    void setUp(int size);
+
+    /**
+     * Play a legal move on the next position and take it back.
+     *
+     * @return The number of discs that were flipped.
+     */
+    int capture();
+
+    /**
+     * Check if a tile of the next position is a legal move,
+     * after its discs have (as far as the rules know) changed.
+     */
+    boolean moveIsLegal();
+
+    /**
+     * Check if the player to move on the next position can move,
+     * after its discs have (as far as the rules know) changed.
+     */
+    boolean canMove();
+}
@@ -0,0 +1,56 @@
+package reversi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the time the computer player takes to search a mid-game
+ * position to a fixed depth, with every number of threads, so that
+ * the speed-up of the parallel search can be read off the results
+ * (the time with one thread divided by the time with N threads).
+ * Run it with "-p threads=1,2,4,..." to measure other numbers of threads.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark
+{
+    // The numbers of threads searching
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    // The depth searched to
+    @Param({"9"})
+    public int depth;
+
+    // The computer player, and the positions it searches
+    private SearchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        fixture = Fixtures.create("AlphaBetaSearchFixture", SearchFixture.class);
+        fixture.setUp(threads, depth);
+    }
+
+    // Every search starts from an empty transposition table, so that
+    // it is not helped by the results of the previous ones
+    // (Clearing it takes far less time than a search.)
+    @Setup(Level.Invocation)
+    public void clear()
+    {
+        fixture.clear();
+    }
+
+    @Benchmark
+    public int timeToDepth()
+    {
+        return fixture.search();
+    }
+}
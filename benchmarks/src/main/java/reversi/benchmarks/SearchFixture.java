@@ -0,0 +1,28 @@
+package reversi.benchmarks;
+
+/**
+ * The search of the computer player.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface SearchFixture
+{
+    /**
+     * Prepare a computer player that searches a set of 8 x 8 mid-game
+     * positions to a depth, with a number of threads.
+     */
+    void setUp(int threads, int depth);
+
+    /**
+     * Make the computer player forget its earlier searches.
+     */
+    void clear();
+
+    /**
+     * Search the next position to the depth.
+     *
+     * @return The move chosen.
+     */
+    int search();
+}
@@ -0,0 +1,70 @@
+package reversi.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures collecting the state of a game, saving it to a file and
+ * reading it back, as the "Save" and "Restore" menu items do.
+ *
+ * The state of a game is kept in the components of the application
+ * window, so these benchmarks open the window, and need a display
+ * (on a machine without one, run them under xvfb-run).
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateBenchmark
+{
+    // The board sizes offered by the application
+    @Param({"4", "6", "8", "10", "12", "14", "16", "18", "20"})
+    public int size;
+
+    // The session, and the file it is saved to
+    private StateFixture fixture;
+    private File saveFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        saveFile = File.createTempFile("reversi", ".sav");
+        fixture = Fixtures.create("SessionStateFixture", StateFixture.class);
+        fixture.setUp(size, saveFile);
+        if (! fixture.saveState()) {
+            throw new IllegalStateException("The session could not be saved to " + saveFile + ".");
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        fixture.tearDown();
+        saveFile.delete();
+    }
+
+    @Benchmark
+    public Object getStateData()
+    {
+        return fixture.getStateData();
+    }
+
+    @Benchmark
+    public boolean saveState()
+    {
+        return fixture.saveState();
+    }
+
+    @Benchmark
+    public Object getState() throws IOException
+    {
+        return fixture.getState();
+    }
+}
@@ -0,0 +1,43 @@
+package reversi.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The saving and restoring of the state of a game session.
+ *
+ * @author Radiance O. Ngonnase
+ * @version 2021.05.19
+ */
+public interface StateFixture
+{
+    /**
+     * Start a game on a size x size board and play a few moves,
+     * in a session that is saved to a file.
+     */
+    void setUp(int size, File saveFile);
+
+    /**
+     * Collect the state of the game.
+     */
+    Object getStateData();
+
+    /**
+     * Save the state of the session to the save file.
+     *
+     * @return Whether the state was saved.
+     */
+    boolean saveState();
+
+    /**
+     * Read the state of the session back from the save file.
+     *
+     * @throws  IOException  If the save file cannot be read.
+     */
+    Object getState() throws IOException;
+
+    /**
+     * Close the application window.
+     */
+    void tearDown();
+}